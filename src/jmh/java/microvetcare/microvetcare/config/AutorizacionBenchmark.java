@@ -0,0 +1,92 @@
+package microvetcare.microvetcare.config;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+/**
+ * Costo de decidir una petición: @PreAuthorize (SpEL evaluado en cada llamada, con la expresión ya
+ * parseada y cacheada por método, como en la aplicación) contra la tabla de AutorizacionPorRoles.
+ * El usuario trae los roles por defecto de Keycloak además del suyo, como en los tokens reales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutorizacionBenchmark {
+
+    /** Mismas anotaciones que tenían MascotaController.getMascotaById y deleteMascota. */
+    public static class ControladorAnotado {
+
+        @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
+        public void getMascotaById(Long id) {
+        }
+
+        @PreAuthorize("hasRole('ADMIN')")
+        public void deleteMascota(Long id) {
+        }
+    }
+
+    private final PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+    private final AutorizacionPorRoles tabla = new SecurityConfig().autorizacionPorRoles();
+    private Authentication veterinario;
+    private SimpleMethodInvocation lectura;
+    private SimpleMethodInvocation borrado;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        veterinario = UsernamePasswordAuthenticationToken.authenticated("usuario-1", null, new KeycloakRealmRoleConverter()
+                .convert(Jwt.withTokenValue("token")
+                        .header("alg", "RS256")
+                        .claim("realm_access", Map.of("roles",
+                                List.of("default-roles-vetcare360", "offline_access", "uma_authorization", "veterinario")))
+                        .build()));
+        ControladorAnotado controlador = new ControladorAnotado();
+        Method get = ControladorAnotado.class.getMethod("getMascotaById", Long.class);
+        Method delete = ControladorAnotado.class.getMethod("deleteMascota", Long.class);
+        lectura = new SimpleMethodInvocation(controlador, get, 5L);
+        borrado = new SimpleMethodInvocation(controlador, delete, 5L);
+    }
+
+    @Benchmark
+    public AuthorizationDecision spelPermitido() {
+        return spel.check(() -> veterinario, lectura);
+    }
+
+    @Benchmark
+    public AuthorizationDecision spelDenegado() {
+        return spel.check(() -> veterinario, borrado);
+    }
+
+    @Benchmark
+    public boolean tablaPermitido() {
+        return (tabla.mascaraRequerida(HttpMethod.GET, "/api/mascotas/5", 0) & AutorizacionPorRoles.mascara(veterinario)) != 0;
+    }
+
+    @Benchmark
+    public boolean tablaDenegado() {
+        return (tabla.mascaraRequerida(HttpMethod.DELETE, "/api/mascotas/5", 0) & AutorizacionPorRoles.mascara(veterinario)) != 0;
+    }
+}
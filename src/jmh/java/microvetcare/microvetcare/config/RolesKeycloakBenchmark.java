@@ -0,0 +1,97 @@
+package microvetcare.microvetcare.config;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Extracción de roles por petición: KeycloakRealmRoleConverter contra la versión anterior con
+ * Stream.concat y un SimpleGrantedAuthority nuevo por rol. La comparación que importa es
+ * gc.alloc.rate.norm (bytes por token) del profiler de GC.
+ *
+ * "conocidos" trae solo roles de la aplicación; "keycloak" suma los roles por defecto del realm
+ * (offline_access, uma_authorization...), que siguen creando su authority en ambas versiones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RolesKeycloakBenchmark {
+
+    @Param({"conocidos", "keycloak"})
+    public String roles;
+
+    private final KeycloakRealmRoleConverter converter = new KeycloakRealmRoleConverter();
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        List<String> rolesRealm = roles.equals("keycloak")
+                ? List.of("default-roles-vetcare360", "offline_access", "uma_authorization", "veterinario")
+                : List.of("veterinario", "asistente");
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("usuario-1")
+                .expiresAt(Instant.now().plusSeconds(300))
+                .claim("realm_access", Map.of("roles", rolesRealm))
+                .claim("resource_access", Map.of(
+                        "vetcare-app", Map.of("roles", List.of("admin")),
+                        "account", Map.of("roles", List.of("manage-account", "view-profile"))))
+                .build();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> unaPasada() {
+        return converter.convert(jwt);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> streamsAnterior() {
+        return convertirConStreams(jwt);
+    }
+
+    // Algoritmo previo, conservado solo como referencia para la comparación
+    private static Collection<GrantedAuthority> convertirConStreams(Jwt jwt) {
+        Stream<GrantedAuthority> authorities = Stream.empty();
+        if (jwt.getClaims().get("realm_access") instanceof Map<?, ?> realmAccess && realmAccess.get("roles") instanceof List<?> roles) {
+            List<String> realmRoles = roles.stream()
+                    .filter(String.class::isInstance)
+                    .map(String.class::cast)
+                    .collect(Collectors.toList());
+            authorities = Stream.concat(authorities, realmRoles.stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())));
+        }
+        if (jwt.getClaims().get("resource_access") instanceof Map<?, ?> resourceAccess
+                && resourceAccess.get("vetcare-app") instanceof Map<?, ?> clientAccess
+                && clientAccess.get("roles") instanceof List<?> roles) {
+            List<String> clientRoles = roles.stream()
+                    .filter(String.class::isInstance)
+                    .map(String.class::cast)
+                    .collect(Collectors.toList());
+            authorities = Stream.concat(authorities, clientRoles.stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())));
+        }
+        return authorities.collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,63 @@
+package microvetcare.microvetcare.mascota.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+
+/**
+ * Serialización JSON de la respuesta de GET /api/mascotas (List<MascotaDTO>) a 1k, 10k y 100k elementos.
+ * Escribe a un OutputStream que descarta los bytes, igual que el convertidor de Spring escribe a la respuesta,
+ * así que la asignación medida es la de Jackson y no la de un byte[] con todo el JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionMascotasBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int tamano;
+
+    private ObjectWriter writer;
+    private List<MascotaDTO> mascotas;
+
+    @Setup
+    public void setUp() {
+        // Mismos valores por defecto que el ObjectMapper de Spring Boot (fechas ISO, módulos registrados)
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(new TypeReference<List<MascotaDTO>>() {});
+        mascotas = new ArrayList<>(tamano);
+        for (long i = 1; i <= tamano; i++) {
+            mascotas.add(new MascotaDTO(i, "Mascota" + i, "CHIP" + i, i % 2 == 0 ? "Hembra" : "Macho", 1,
+                    LocalDate.of(2015, 1, 1).plusDays(i % 3000), i % 500 + 1, i % 40 + 1, "Dueno" + (i % 500) + " Apellido",
+                    "Raza" + (i % 40)));
+        }
+    }
+
+    @Benchmark
+    public void serializarLista() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), mascotas);
+    }
+}
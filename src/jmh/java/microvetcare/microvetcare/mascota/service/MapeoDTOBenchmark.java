@@ -0,0 +1,89 @@
+package microvetcare.microvetcare.mascota.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import microvetcare.microvetcare.dueno.DTO.DuenoDTO;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.especie.DTO.EspecieDTO;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.especie.service.EspecieServiceImpl;
+import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+import microvetcare.microvetcare.mascota.entity.Mascota;
+import microvetcare.microvetcare.raza.DTO.RazaDTO;
+import microvetcare.microvetcare.raza.entity.Raza;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
+
+/**
+ * Costo por elemento de la conversión entidad → DTO que hace cada listado y cada respuesta.
+ * Con -prof gc (lo agrega el perfil benchmark) se ve además gc.alloc.rate.norm: bytes por conversión.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoDTOBenchmark {
+
+    private MascotaServiceImpl mascotaService;
+    private EspecieServiceImpl especieService;
+    private Mascota mascota;
+    private Dueno duenoConMascotas;
+    private Raza raza;
+    private Especie especie;
+
+    @Setup
+    public void setUp() {
+        // Catálogo de razas sin cargar: el nombre sale de la entidad, como ante un miss del catálogo
+        mascotaService = new MascotaServiceImpl(null, null, null, new RazaCatalogo(null, new SimpleMeterRegistry()), null);
+        especieService = new EspecieServiceImpl(null, null, null);
+
+        especie = new Especie(1L, "Canis familiaris", "Perro", 1);
+        raza = new Raza("Labrador", "A", especie);
+        raza.setId(10L);
+        duenoConMascotas = new Dueno("12345678-9", "Juan", "Perez", "Calle Falsa 123", "912345678", "juan@vetcare.cl", true);
+        duenoConMascotas.setId(100L);
+        Set<Mascota> mascotas = new LinkedHashSet<>();
+        for (long i = 1; i <= 3; i++) {
+            mascotas.add(new Mascota(i, "Mascota" + i, LocalDate.of(2020, 1, 1), 1, "CHIP" + i, "Macho", duenoConMascotas, raza));
+        }
+        duenoConMascotas.setMascotas(mascotas);
+        mascota = mascotas.iterator().next();
+    }
+
+    @Benchmark
+    public MascotaDTO mascotaConvertirEntidadADTO() {
+        return mascotaService.convertirEntidadADTO(mascota);
+    }
+
+    @Benchmark
+    public DuenoDTO duenoDTOConTresMascotas() {
+        return new DuenoDTO(duenoConMascotas);
+    }
+
+    @Benchmark
+    public RazaDTO razaDTO() {
+        return new RazaDTO(raza);
+    }
+
+    @Benchmark
+    public EspecieDTO especieConvertToDTO() {
+        return especieService.convertToDTO(especie);
+    }
+}
@@ -0,0 +1,205 @@
+package microvetcare.microvetcare.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caché local de un catálogo de referencia (datos que casi nunca cambian).
+ *
+ * Las lecturas se resuelven contra una foto inmutable (lista, mapa por ID y mapa por nombre)
+ * publicada en un AtomicReference, sin locks. Las escrituras construyen una foto nueva y la
+ * reemplazan de una sola vez (copy-on-write), y solo después del commit de la transacción.
+ * Mientras la caché no está cargada, o ante un miss, se consulta la base de datos.
+ *
+ * Los DTO entregados son compartidos entre llamadas: no se deben modificar.
+ */
+public abstract class CatalogoCache<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoCache.class);
+
+    private final String catalogo;
+    private final Function<T, Long> id;
+    private final Function<T, String> nombre;
+    // null mientras la caché no se ha cargado
+    private final AtomicReference<Foto<T>> foto = new AtomicReference<>();
+    // Lock en vez de synchronized: la carga consulta la base de datos y, con hilos virtuales,
+    // bloquearse dentro de synchronized fija el hilo portador
+    private final ReentrantLock carga = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+
+    protected CatalogoCache(String catalogo, Function<T, Long> id, Function<T, String> nombre, MeterRegistry registry) {
+        this.catalogo = catalogo;
+        this.id = id;
+        this.nombre = nombre;
+        this.hits = Counter.builder("catalogo.cache.consultas")
+                .description("Consultas al catálogo en memoria")
+                .tag("catalogo", catalogo)
+                .tag("resultado", "hit")
+                .register(registry);
+        this.misses = Counter.builder("catalogo.cache.consultas")
+                .description("Consultas al catálogo en memoria")
+                .tag("catalogo", catalogo)
+                .tag("resultado", "miss")
+                .register(registry);
+        Gauge.builder("catalogo.cache.entradas", foto, f -> f.get() != null ? f.get().todos().size() : 0)
+                .description("Entradas cargadas en el catálogo en memoria")
+                .tag("catalogo", catalogo)
+                .register(registry);
+    }
+
+    /** Lee el catálogo completo desde la base de datos. */
+    protected abstract List<T> cargarDesdeBaseDeDatos();
+
+    protected abstract Optional<T> buscarEnBaseDeDatos(Long id);
+
+    protected abstract Optional<T> buscarEnBaseDeDatosPorNombre(String nombre);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            // La aplicación sigue funcionando contra la base de datos; la carga se reintenta al listar
+            log.warn("No se pudo precargar el catálogo {}: {}", catalogo, e.getMessage());
+        }
+    }
+
+    /** Vuelve a leer el catálogo completo y publica la foto nueva. */
+    public void recargar() {
+        carga.lock();
+        try {
+            List<T> items = cargarDesdeBaseDeDatos();
+            foto.set(Foto.de(items, id, nombre));
+            log.info("Catálogo {} cargado con {} entradas", catalogo, items.size());
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    public List<T> todos() {
+        Foto<T> actual = foto.get();
+        if (actual == null) {
+            misses.increment();
+            recargar();
+            return foto.get().todos();
+        }
+        hits.increment();
+        return actual.todos();
+    }
+
+    public Optional<T> buscarPorId(Long id) {
+        Optional<T> item = enCache(id);
+        if (item.isPresent()) {
+            hits.increment();
+            return item;
+        }
+        misses.increment();
+        return buscarEnBaseDeDatos(id);
+    }
+
+    public Optional<T> buscarPorNombre(String nombre) {
+        Foto<T> actual = foto.get();
+        T item = actual != null ? actual.porNombre().get(nombre) : null;
+        if (item != null) {
+            hits.increment();
+            return Optional.of(item);
+        }
+        misses.increment();
+        return buscarEnBaseDeDatosPorNombre(nombre);
+    }
+
+    public boolean existe(Long id) {
+        return buscarPorId(id).isPresent();
+    }
+
+    /** Solo memoria: no consulta la base de datos ni cuenta en las métricas. */
+    public Optional<T> enCache(Long id) {
+        Foto<T> actual = foto.get();
+        return actual != null ? Optional.ofNullable(actual.porId().get(id)) : Optional.empty();
+    }
+
+    /** Foto actual, o vacío si la caché aún no está cargada. */
+    protected Optional<List<T>> fotoActual() {
+        Foto<T> actual = foto.get();
+        if (actual == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(actual.todos());
+    }
+
+    public void guardado(T item) {
+        alConfirmar(porId -> porId.put(id.apply(item), item));
+    }
+
+    public void eliminado(Long idEliminado) {
+        alConfirmar(porId -> porId.remove(idEliminado));
+    }
+
+    protected void alConfirmar(Consumer<Map<Long, T>> cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Si la transacción hace rollback la foto no cambia
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(cambio);
+                }
+            });
+        } else {
+            aplicar(cambio);
+        }
+    }
+
+    private void aplicar(Consumer<Map<Long, T>> cambio) {
+        carga.lock();
+        try {
+            Foto<T> actual = foto.get();
+            if (actual == null) {
+                // Sin cargar: la próxima carga ya leerá el cambio desde la base de datos
+                return;
+            }
+            Map<Long, T> porId = new HashMap<>(actual.porId());
+            cambio.accept(porId);
+            foto.set(Foto.de(porId.values(), id, nombre));
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    private record Foto<T>(List<T> todos, Map<Long, T> porId, Map<String, T> porNombre) {
+
+        static <T> Foto<T> de(Collection<T> items, Function<T, Long> id, Function<T, String> nombre) {
+            List<T> ordenados = items.stream().sorted(Comparator.comparing(id)).toList();
+            Map<Long, T> porId = new HashMap<>();
+            Map<String, T> porNombre = new LinkedHashMap<>();
+            for (T item : ordenados) {
+                porId.put(id.apply(item), item);
+                porNombre.putIfAbsent(nombre.apply(item), item);
+            }
+            return new Foto<>(ordenados, Collections.unmodifiableMap(porId), Collections.unmodifiableMap(porNombre));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package microvetcare.microvetcare.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para cadenas: responde "seguro que no está" o "puede estar".
+ *
+ * El tamaño se calcula a partir de la capacidad esperada y la tasa de falsos positivos deseada.
+ * No admite borrados: un valor eliminado sigue respondiendo "puede estar" hasta que se construya
+ * un filtro nuevo. Es seguro entre hilos, porque agregar solo enciende bits.
+ */
+public final class FiltroBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long cantidadBits;
+    private final int cantidadHashes;
+    private final AtomicLong bitsEncendidos = new AtomicLong();
+
+    public FiltroBloom(long capacidad, double tasaFalsosPositivos) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad del filtro debe ser mayor que cero");
+        }
+        if (!(tasaFalsosPositivos > 0 && tasaFalsosPositivos < 1)) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 1");
+        }
+        long bitsNecesarios = (long) Math.ceil(-capacidad * Math.log(tasaFalsosPositivos) / (LN2 * LN2));
+        int palabras = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bitsNecesarios + 63) / 64));
+        this.bits = new AtomicLongArray(palabras);
+        this.cantidadBits = (long) palabras * 64;
+        this.cantidadHashes = Math.max(1, (int) Math.round((double) cantidadBits / capacidad * LN2));
+    }
+
+    public void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % cantidadBits;
+            long mascara = 1L << bit;
+            long anterior = bits.getAndAccumulate((int) (bit >>> 6), mascara, (actual, m) -> actual | m);
+            if ((anterior & mascara) == 0) {
+                bitsEncendidos.incrementAndGet();
+            }
+        }
+    }
+
+    public boolean podriaContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % cantidadBits;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probabilidad de falso positivo con el llenado actual: (bits encendidos / bits totales) ^ hashes.
+     * Sube por encima de la tasa configurada cuando se agregan más valores que la capacidad.
+     */
+    public double tasaFalsosPositivosEstimada() {
+        return Math.pow((double) bitsEncendidos.get() / cantidadBits, cantidadHashes);
+    }
+
+    public long getCantidadBits() {
+        return cantidadBits;
+    }
+
+    public int getCantidadHashes() {
+        return cantidadHashes;
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, con mezcla final de MurmurHash3
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mezclar(h);
+    }
+
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,64 @@
+package microvetcare.microvetcare.concurrencia;
+
+/**
+ * Límite de concurrencia AIMD (aumento aditivo, reducción multiplicativa), como el control de
+ * congestión de TCP.
+ *
+ * Cada petición que termina a tiempo mientras al menos la mitad del límite está en uso lo sube en
+ * 1/límite. Cada petición lenta (sobre la latencia objetivo) o con error de servidor lo multiplica
+ * por el factor de reducción. Así el límite converge a la concurrencia que la base de datos atiende
+ * sin que crezca la latencia.
+ *
+ * Los métodos son synchronized pero nunca bloquean dentro, así que no fijan hilos virtuales.
+ */
+public class LimiteAdaptativo {
+
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaObjetivoNanos;
+    private final double factorReduccion;
+
+    private double limite;
+    private int enCurso;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, long latenciaObjetivoNanos, double factorReduccion) {
+        if (minimo < 1 || maximo < minimo || inicial < minimo || inicial > maximo) {
+            throw new IllegalArgumentException("Se requiere 1 <= mínimo <= inicial <= máximo");
+        }
+        if (!(factorReduccion > 0 && factorReduccion < 1)) {
+            throw new IllegalArgumentException("El factor de reducción debe estar entre 0 y 1");
+        }
+        this.limite = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaObjetivoNanos = latenciaObjetivoNanos;
+        this.factorReduccion = factorReduccion;
+    }
+
+    /** Ocupa un lugar si hay; si no, la petición se debe rechazar sin esperar. */
+    public synchronized boolean intentarAdquirir() {
+        if (enCurso >= (int) limite) {
+            return false;
+        }
+        enCurso++;
+        return true;
+    }
+
+    public synchronized void liberar(long latenciaNanos, boolean error) {
+        int enCursoAlTerminar = enCurso--;
+        if (error || latenciaNanos > latenciaObjetivoNanos) {
+            limite = Math.max(minimo, limite * factorReduccion);
+        } else if (enCursoAlTerminar * 2 >= limite) {
+            // Solo crece si el límite se está usando: con poco tráfico no hay evidencia de que aguante más
+            limite = Math.min(maximo, limite + 1 / limite);
+        }
+    }
+
+    public synchronized int getLimite() {
+        return (int) limite;
+    }
+
+    public synchronized int getEnCurso() {
+        return enCurso;
+    }
+}
@@ -0,0 +1,116 @@
+package microvetcare.microvetcare.concurrencia;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bulkhead delante de los controladores: limita las peticiones /api/** en curso con un
+ * LimiteAdaptativo para las lecturas (GET/HEAD) y otro para las escrituras.
+ *
+ * Con un pool de 3 conexiones y connection-timeout de 30 s, sin este filtro un pico deja peticiones
+ * esperando conexión hasta 30 s para terminar fallando igual. Aquí, la que no tiene lugar recibe
+ * de inmediato 503 con Retry-After. Ambos límites parten del tamaño del pool; las lecturas pueden
+ * crecer más porque muchas se resuelven desde las cachés sin tocar la base de datos.
+ * La exportación (/api/mascotas/stream) y la importación CSV (/api/duenos/import) quedan fuera.
+ */
+@Component
+@ConditionalOnProperty(name = "concurrencia.limite.habilitado", havingValue = "true")
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteConcurrenciaFilter.class);
+
+    // Largos por diseño (exportación NDJSON e importación CSV): su duración no dice nada de la carga,
+    // y como muestras llevarían el límite hacia 1 y dejarían sin lugar a las peticiones normales
+    private static final Set<String> LARGA_DURACION = Set.of("/api/mascotas/stream", "/api/duenos/import");
+
+    private final LimiteAdaptativo lectura;
+    private final LimiteAdaptativo escritura;
+    private final Counter lecturasRechazadas;
+    private final Counter escriturasRechazadas;
+    private final String reintentarEnSegundos;
+
+    @Autowired
+    public LimiteConcurrenciaFilter(@Value("${concurrencia.limite.inicial:${spring.datasource.hikari.maximum-pool-size:10}}") int inicial,
+                                    @Value("${concurrencia.limite.lectura.maximo:#{4 * ${spring.datasource.hikari.maximum-pool-size:10}}}") int maximoLectura,
+                                    @Value("${concurrencia.limite.escritura.maximo:${spring.datasource.hikari.maximum-pool-size:10}}") int maximoEscritura,
+                                    @Value("${concurrencia.limite.latencia-objetivo:PT1S}") Duration latenciaObjetivo,
+                                    @Value("${concurrencia.limite.reintentar-en:PT1S}") Duration reintentarEn,
+                                    MeterRegistry registry) {
+        this(new LimiteAdaptativo(inicial, 1, Math.max(inicial, maximoLectura), latenciaObjetivo.toNanos(), 0.9),
+             new LimiteAdaptativo(Math.min(inicial, maximoEscritura), 1, maximoEscritura, latenciaObjetivo.toNanos(), 0.9),
+             reintentarEn, registry);
+    }
+
+    LimiteConcurrenciaFilter(LimiteAdaptativo lectura, LimiteAdaptativo escritura, Duration reintentarEn, MeterRegistry registry) {
+        this.lectura = lectura;
+        this.escritura = escritura;
+        this.reintentarEnSegundos = String.valueOf(Math.max(1, reintentarEn.toSeconds()));
+        this.lecturasRechazadas = registrarMetricas(registry, "lectura", lectura);
+        this.escriturasRechazadas = registrarMetricas(registry, "escritura", escritura);
+        log.info("Límite de concurrencia adaptativo activo: parte en {} lecturas y {} escrituras simultáneas",
+                lectura.getLimite(), escritura.getLimite());
+    }
+
+    private static Counter registrarMetricas(MeterRegistry registry, String tipo, LimiteAdaptativo limite) {
+        Gauge.builder("concurrencia.limite.actual", limite, LimiteAdaptativo::getLimite)
+                .description("Peticiones simultáneas permitidas en este momento")
+                .tag("tipo", tipo)
+                .register(registry);
+        Gauge.builder("concurrencia.limite.en_curso", limite, LimiteAdaptativo::getEnCurso)
+                .description("Peticiones /api/** en curso")
+                .tag("tipo", tipo)
+                .register(registry);
+        return Counter.builder("concurrencia.limite.rechazadas")
+                .description("Peticiones rechazadas con 503 por superar el límite")
+                .tag("tipo", tipo)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || LARGA_DURACION.contains(uri);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean esLectura = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        LimiteAdaptativo limite = esLectura ? lectura : escritura;
+        if (!limite.intentarAdquirir()) {
+            (esLectura ? lecturasRechazadas : escriturasRechazadas).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, reintentarEnSegundos);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado, reintente más tarde.");
+            return;
+        }
+        long inicio = System.nanoTime();
+        boolean error = true;
+        try {
+            filterChain.doFilter(request, response);
+            // Un 5xx suele ser la base de datos sin conexiones o con timeouts: señal de sobrecarga
+            error = response.getStatus() >= 500;
+        } finally {
+            limite.liberar(System.nanoTime() - inicio, error);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package microvetcare.microvetcare.config;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Calza solo con peticiones que llegan al servidor de management (el que Spring Boot levanta aparte
+ * cuando management.server.port difiere del puerto de la API) y desde la misma máquina.
+ *
+ * Así los endpoints de actuator sin autenticación no quedan públicos aunque MANAGEMENT_PORT se
+ * configure igual al puerto de la API o MANAGEMENT_ADDRESS escuche en todas las interfaces: en esos
+ * casos este matcher no calza y se exige el JWT como en el resto.
+ */
+public class AccesoManagementLocal implements RequestMatcher, ApplicationListener<WebServerInitializedEvent> {
+
+    static final String NAMESPACE_MANAGEMENT = "management";
+
+    // -1 mientras no haya servidor de management propio (o si comparte el puerto de la API)
+    private volatile int puerto = -1;
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (NAMESPACE_MANAGEMENT.equals(event.getApplicationContext().getServerNamespace())) {
+            puerto = event.getWebServer().getPort();
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        int actual = puerto;
+        return actual > 0 && request.getLocalPort() == actual && esLocal(request.getRemoteAddr());
+    }
+
+    private static boolean esLocal(String direccion) {
+        try {
+            // Siempre es una IP literal, así que no hay resolución DNS
+            return direccion != null && InetAddress.getByName(direccion).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    int getPuerto() {
+        return puerto;
+    }
+}
@@ -0,0 +1,128 @@
+package microvetcare.microvetcare.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UrlPathHelper;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Tabla de autorización por método HTTP y prefijo de ruta, armada una vez en SecurityConfig.
+ *
+ * Cada regla guarda los roles permitidos como máscara de bits; por petición se calcula la máscara de
+ * las authorities del usuario y se compara con la de la primera regla que calza. Las reglas se comparan
+ * con la ruta ya decodificada y sin context path, la misma que usa Spring MVC para elegir el handler:
+ * con la URI cruda, {@code /api/%6Dascotas/1} no calzaría con ninguna regla y llegaría igual al
+ * controlador de mascotas. Una ruta sin regla se rechaza.
+ */
+public class AutorizacionPorRoles implements AuthorizationManager<RequestAuthorizationContext> {
+
+    public enum Rol {
+        ADMIN(KeycloakRealmRoleConverter.ROLE_ADMIN),
+        VETERINARIO(KeycloakRealmRoleConverter.ROLE_VETERINARIO),
+        ASISTENTE(KeycloakRealmRoleConverter.ROLE_ASISTENTE);
+
+        private final GrantedAuthority authority;
+        private final int bit;
+
+        Rol(GrantedAuthority authority) {
+            this.authority = authority;
+            this.bit = 1 << ordinal();
+        }
+    }
+
+    private record Regla(HttpMethod metodo, String prefijo, int mascara) {
+
+        boolean aplica(HttpMethod metodo, String ruta) {
+            return this.metodo.equals(metodo)
+                    && ruta.startsWith(prefijo)
+                    && (ruta.length() == prefijo.length() || ruta.charAt(prefijo.length()) == '/');
+        }
+    }
+
+    private static final Rol[] ROLES = Rol.values();
+    private static final AuthorizationDecision PERMITIDO = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENEGADO = new AuthorizationDecision(false);
+    // Decodifica la URI, quita el contenido tras ';' y el context path
+    private static final UrlPathHelper RUTAS = UrlPathHelper.defaultInstance;
+
+    private final Regla[] reglas;
+
+    private AutorizacionPorRoles(List<Regla> reglas) {
+        this.reglas = reglas.toArray(Regla[]::new);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        int mascara = mascaraRequerida(HttpMethod.valueOf(request.getMethod()), RUTAS.getPathWithinApplication(request));
+        return (mascara & mascara(authentication.get())) != 0 ? PERMITIDO : DENEGADO;
+    }
+
+    /** Máscara de roles exigida para la ruta decodificada y sin context path, o 0 si ninguna regla la cubre. */
+    public int mascaraRequerida(HttpMethod metodo, String ruta) {
+        // HEAD lo atiende el mismo handler que GET
+        HttpMethod efectivo = HttpMethod.HEAD.equals(metodo) ? HttpMethod.GET : metodo;
+        for (Regla regla : reglas) {
+            if (regla.aplica(efectivo, ruta)) {
+                return regla.mascara();
+            }
+        }
+        return 0;
+    }
+
+    /** Roles conocidos de la autenticación como máscara de bits; 0 si no hay usuario. */
+    public static int mascara(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return 0;
+        }
+        int mascara = 0;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            for (Rol rol : ROLES) {
+                // Las authorities de KeycloakRealmRoleConverter son las mismas instancias; equals cubre el resto
+                if (authority == rol.authority || rol.authority.getAuthority().equals(authority.getAuthority())) {
+                    mascara |= rol.bit;
+                    break;
+                }
+            }
+        }
+        return mascara;
+    }
+
+    public static final class Builder {
+
+        private final List<Regla> reglas = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /** Permite {@code metodo} sobre {@code prefijo} y sus subrutas solo a los roles indicados. */
+        public Builder permitir(HttpMethod metodo, String prefijo, Rol... roles) {
+            if (roles.length == 0) {
+                throw new IllegalArgumentException("La regla " + metodo + " " + prefijo + " no tiene roles");
+            }
+            int mascara = 0;
+            for (Rol rol : roles) {
+                mascara |= rol.bit;
+            }
+            reglas.add(new Regla(metodo, prefijo, mascara));
+            return this;
+        }
+
+        public AutorizacionPorRoles build() {
+            return new AutorizacionPorRoles(reglas);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package microvetcare.microvetcare.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+/**
+ * JWK set de Keycloak servido desde memoria y respaldado en un archivo local.
+ *
+ * Al arrancar se lee el archivo; si no existe se descarga una vez. Después un hilo propio lo
+ * refresca cada cierto intervalo y también cuando llega un token con un kid desconocido (rotación
+ * de claves en Keycloak). La validación de tokens nunca espera a la red: ante un kid desconocido
+ * el token se rechaza y el refresco queda encargado, así que si Keycloak está lento o caído se
+ * sigue validando con las últimas claves conocidas.
+ */
+public class JwkSetLocal implements JWKSource<SecurityContext>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JwkSetLocal.class);
+
+    private final URI jwkSetUri;
+    private final Path archivo;
+    private final Duration timeout;
+    private final long refrescoMinimoNanos;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService refrescador;
+    private final AtomicBoolean refrescoPendiente = new AtomicBoolean();
+    private volatile JWKSet claves = new JWKSet();
+    private volatile long ultimoIntentoNanos;
+
+    /**
+     * @param intervalo       cada cuánto se vuelve a descargar el JWK set
+     * @param refrescoMinimo  separación mínima entre refrescos por kid desconocido, para que tokens
+     *                        inventados no se traduzcan en una descarga por petición
+     */
+    public JwkSetLocal(URI jwkSetUri, Path archivo, Duration intervalo, Duration refrescoMinimo, Duration timeout) {
+        this.jwkSetUri = jwkSetUri;
+        this.archivo = archivo;
+        this.timeout = timeout;
+        this.refrescoMinimoNanos = refrescoMinimo.toNanos();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.refrescador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "jwks-refresco");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        boolean desdeArchivo = cargarArchivo();
+        if (!desdeArchivo) {
+            refrescar();
+        }
+        // Con archivo se refresca enseguida en segundo plano por si quedó viejo
+        refrescador.scheduleWithFixedDelay(this::refrescar, desdeArchivo ? 0 : intervalo.toMillis(),
+                intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> encontradas = jwkSelector.select(claves);
+        if (encontradas.isEmpty()) {
+            solicitarRefresco();
+        }
+        return encontradas;
+    }
+
+    public JWKSet getClaves() {
+        return claves;
+    }
+
+    /** Encarga un refresco al hilo de fondo, salvo que ya haya uno pendiente o uno reciente. */
+    public void solicitarRefresco() {
+        if (System.nanoTime() - ultimoIntentoNanos < refrescoMinimoNanos || !refrescoPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        refrescador.execute(() -> {
+            try {
+                refrescar();
+            } finally {
+                refrescoPendiente.set(false);
+            }
+        });
+    }
+
+    private boolean cargarArchivo() {
+        if (!Files.isRegularFile(archivo)) {
+            return false;
+        }
+        try {
+            JWKSet leidas = JWKSet.parse(Files.readString(archivo, StandardCharsets.UTF_8));
+            if (leidas.isEmpty()) {
+                return false;
+            }
+            claves = leidas;
+            log.info("JWK set cargado desde {} ({} claves)", archivo, leidas.size());
+            return true;
+        } catch (IOException | ParseException e) {
+            log.warn("No se pudo leer el JWK set local {}: {}", archivo, e.getMessage());
+            return false;
+        }
+    }
+
+    private void refrescar() {
+        ultimoIntentoNanos = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(jwkSetUri).timeout(timeout)
+                    .header("Accept", "application/json").GET().build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("JWK set no actualizado: {} respondió {}", jwkSetUri, response.statusCode());
+                return;
+            }
+            JWKSet descargadas = JWKSet.parse(response.body());
+            if (descargadas.isEmpty()) {
+                log.warn("JWK set no actualizado: {} no trajo claves", jwkSetUri);
+                return;
+            }
+            claves = descargadas;
+            guardarArchivo(descargadas);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ParseException e) {
+            log.warn("JWK set no actualizado desde {}: {}", jwkSetUri, e.toString());
+        }
+    }
+
+    private void guardarArchivo(JWKSet descargadas) {
+        try {
+            Path directorio = archivo.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            Path temporal = Files.createTempFile(directorio, "jwks", ".tmp");
+            Files.writeString(temporal, descargadas.toString(true), StandardCharsets.UTF_8);
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Las claves nuevas ya están en memoria; solo se pierde el respaldo para el próximo arranque
+            log.warn("No se pudo guardar el JWK set en {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        refrescador.shutdownNow();
+    }
+}
@@ -0,0 +1,48 @@
+package microvetcare.microvetcare.config;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+/**
+ * Reemplaza el JwtDecoder de Spring Boot (que descarga el JWK set en la misma petición que lo
+ * necesita) por uno que valida contra JwkSetLocal. Las validaciones de exp, nbf e issuer son las mismas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "seguridad.jwt.jwks-local.habilitado", havingValue = "true", matchIfMissing = true)
+public class JwkSetLocalConfig {
+
+    @Bean
+    public JwkSetLocal jwkSetLocal(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") URI jwkSetUri,
+                                   @Value("${seguridad.jwt.jwks-local.archivo:jwks-cache.json}") Path archivo,
+                                   @Value("${seguridad.jwt.jwks-local.refresco:PT5M}") Duration refresco,
+                                   @Value("${seguridad.jwt.jwks-local.refresco-minimo:PT30S}") Duration refrescoMinimo,
+                                   @Value("${seguridad.jwt.jwks-local.timeout:PT5S}") Duration timeout) {
+        return new JwkSetLocal(jwkSetUri, archivo, refresco, refrescoMinimo, timeout);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JwkSetLocal jwkSetLocal,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSetLocal));
+        // Los claims los valida Spring (JwtValidators), igual que en el decoder por defecto
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+}
@@ -0,0 +1,112 @@
+package microvetcare.microvetcare.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Autenticación JWT con caché: el SPA manda el mismo token muchas veces por minuto, y sin caché cada
+ * petición vuelve a verificar la firma y a extraer los roles. Aquí el primer uso pasa por
+ * JwtAuthenticationProvider y el resultado queda guardado, con la clave SHA-256 del token, hasta su exp.
+ *
+ * Solo se guardan tokens ya verificados: un token inválido lanza excepción y no entra a la caché.
+ * Métricas: cache.gets{cache=jwt.autenticacion,result=hit|miss}, cache.size y cache.evictions.
+ */
+public class JwtAutenticacionCacheada implements AuthenticationManager {
+
+    static final String NOMBRE_CACHE = "jwt.autenticacion";
+
+    private final AuthenticationProvider delegado;
+    private final Cache<String, JwtAuthenticationToken> cache;
+
+    public JwtAutenticacionCacheada(JwtDecoder jwtDecoder, Converter<Jwt, ? extends AbstractAuthenticationToken> converter,
+                                    long maximo, Duration ttlMaximo, MeterRegistry registry) {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(converter);
+        this.delegado = provider;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(new HastaExpiracion(ttlMaximo))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, NOMBRE_CACHE);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            throw new ProviderNotFoundException("Solo se aceptan tokens Bearer: " + authentication.getClass().getName());
+        }
+        String clave = sha256(bearer.getToken());
+        JwtAuthenticationToken cacheada = cache.getIfPresent(clave);
+        if (cacheada == null) {
+            Authentication resultado = delegado.authenticate(bearer);
+            if (resultado instanceof JwtAuthenticationToken jwtAutenticado && jwtAutenticado.getToken().getExpiresAt() != null) {
+                cache.put(clave, jwtAutenticado);
+            }
+            return resultado;
+        }
+        // Copia por petición: los detalles (IP, sesión) son de esta petición y no de la que llenó la caché
+        JwtAuthenticationToken autenticacion = new JwtAuthenticationToken(cacheada.getToken(), cacheada.getAuthorities(),
+                cacheada.getName());
+        autenticacion.setDetails(bearer.getDetails());
+        return autenticacion;
+    }
+
+    private static String sha256(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /** Cada entrada vence en el exp de su token, sin pasar de ttlMaximo. */
+    private static final class HastaExpiracion implements Expiry<String, JwtAuthenticationToken> {
+
+        private final long ttlMaximoNanos;
+
+        HastaExpiracion(Duration ttlMaximo) {
+            this.ttlMaximoNanos = ttlMaximo.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String clave, JwtAuthenticationToken autenticacion, long currentTime) {
+            Instant exp = autenticacion.getToken().getExpiresAt();
+            long restante = Duration.between(Instant.now(), exp).toNanos();
+            return Math.max(0, Math.min(restante, ttlMaximoNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, JwtAuthenticationToken autenticacion, long currentTime, long currentDuration) {
+            return expireAfterCreate(clave, autenticacion, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String clave, JwtAuthenticationToken autenticacion, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -5,72 +5,72 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+/**
+ * Convierte los roles de Keycloak (realm_access.roles y resource_access.{cliente}.roles) en ROLE_*.
+ * Recorre los claims una sola vez; los roles conocidos reutilizan siempre la misma instancia
+ * de GrantedAuthority y solo los desconocidos crean una nueva.
+ */
 public class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
-    @Override
-    public Collection<GrantedAuthority> convert(Jwt jwt) {
-        Stream<GrantedAuthority> authorities = Stream.empty();
+    public static final String CLIENTE_POR_DEFECTO = "vetcare-app";
+
+    public static final GrantedAuthority ROLE_ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+    public static final GrantedAuthority ROLE_VETERINARIO = new SimpleGrantedAuthority("ROLE_VETERINARIO");
+    public static final GrantedAuthority ROLE_ASISTENTE = new SimpleGrantedAuthority("ROLE_ASISTENTE");
+
+    private static final String[] ROLES_CONOCIDOS = {"ADMIN", "VETERINARIO", "ASISTENTE"};
+    private static final GrantedAuthority[] AUTHORITIES_CONOCIDAS = {ROLE_ADMIN, ROLE_VETERINARIO, ROLE_ASISTENTE};
+
+    private final String clienteId;
 
-        Object realmAccessObj = jwt.getClaims().get("realm_access");
-        Map<String, Object> realmAccess = null;
-        if (realmAccessObj instanceof Map<?, ?>) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> casted = (Map<String, Object>) realmAccessObj;
-            realmAccess = casted;
+    public KeycloakRealmRoleConverter() {
+        this(CLIENTE_POR_DEFECTO);
+    }
+
+    public KeycloakRealmRoleConverter(String clienteId) {
+        if (clienteId == null || clienteId.isBlank()) {
+            throw new IllegalArgumentException("El id de cliente de Keycloak no puede estar vacío");
         }
-        if (realmAccess != null && realmAccess.containsKey("roles")) {
-            Object rolesObj = realmAccess.get("roles");
-            if (rolesObj instanceof List<?>) {
-                List<?> rolesList = (List<?>) rolesObj;
-                List<String> realmRoles = rolesList.stream()
-                        .filter(String.class::isInstance)
-                        .map(String.class::cast)
-                        .collect(Collectors.toList());
-                authorities = Stream.concat(authorities, realmRoles.stream()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                );
-            }
+        this.clienteId = clienteId;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Map<String, Object> claims = jwt.getClaims();
+        List<GrantedAuthority> authorities = new ArrayList<>(4);
+        agregarRoles(claims.get("realm_access"), authorities);
+        if (claims.get("resource_access") instanceof Map<?, ?> resourceAccess) {
+            agregarRoles(resourceAccess.get(clienteId), authorities);
         }
+        return authorities;
+    }
 
-        Object resourceAccessObj = jwt.getClaims().get("resource_access");
-        Map<String, Object> resourceAccess = null;
-        if (resourceAccessObj instanceof Map<?, ?>) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> casted = (Map<String, Object>) resourceAccessObj;
-            resourceAccess = casted;
+    private static void agregarRoles(Object acceso, List<GrantedAuthority> authorities) {
+        if (!(acceso instanceof Map<?, ?> mapa) || !(mapa.get("roles") instanceof List<?> roles)) {
+            return;
         }
-        if (resourceAccess != null) {
-            Object clientAccessObj = resourceAccess.get("vetcare-app");
-            Map<String, Object> clientAccess = null;
-            if (clientAccessObj instanceof Map<?, ?>) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> castedClient = (Map<String, Object>) clientAccessObj;
-                clientAccess = castedClient;
-            }
-            if (clientAccess != null && clientAccess.containsKey("roles")) {
-                Object clientRolesObj = clientAccess.get("roles");
-                if (clientRolesObj instanceof List<?>) {
-                    List<?> clientRolesList = (List<?>) clientRolesObj;
-                    List<String> clientRoles = clientRolesList.stream()
-                            .filter(String.class::isInstance)
-                            .map(String.class::cast)
-                            .collect(Collectors.toList());
-                    authorities = Stream.concat(authorities, clientRoles.stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                    );
+        for (Object rol : roles) {
+            if (rol instanceof String nombre) {
+                GrantedAuthority authority = authority(nombre);
+                // Un mismo rol puede venir en el realm y en el cliente
+                if (!authorities.contains(authority)) {
+                    authorities.add(authority);
                 }
             }
         }
-        
-        return authorities.collect(Collectors.toList());
     }
 
-
-
+    static GrantedAuthority authority(String rol) {
+        for (int i = 0; i < ROLES_CONOCIDOS.length; i++) {
+            if (ROLES_CONOCIDOS[i].equalsIgnoreCase(rol)) {
+                return AUTHORITIES_CONOCIDAS[i];
+            }
+        }
+        return new SimpleGrantedAuthority("ROLE_" + rol.toUpperCase());
+    }
 }
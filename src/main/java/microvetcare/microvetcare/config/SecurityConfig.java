@@ -1,34 +1,49 @@
 package microvetcare.microvetcare.config;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy; 
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static microvetcare.microvetcare.config.AutorizacionPorRoles.Rol.ADMIN;
+import static microvetcare.microvetcare.config.AutorizacionPorRoles.Rol.ASISTENTE;
+import static microvetcare.microvetcare.config.AutorizacionPorRoles.Rol.VETERINARIO;
+
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAutenticacionCacheada jwtAutenticacion,
+                                                   AutorizacionPorRoles autorizacionPorRoles,
+                                                   AccesoManagementLocal accesoManagementLocal) throws Exception {
         http
             .csrf(csrf -> csrf.disable()) 
             .authorizeHttpRequests(authorize -> authorize
+                // Sin JWT solo por el servidor de management y desde localhost, no por el puerto de la API
+                .requestMatchers(new AndRequestMatcher(EndpointRequest.to("health", "prometheus"), accesoManagementLocal)).permitAll()
+                .requestMatchers("/api/**").access(autorizacionPorRoles)
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
                 .jwt(jwt -> jwt
-                    .jwtAuthenticationConverter(jwtAuthenticationConverter()) 
+                    .authenticationManager(jwtAutenticacion)
                 )
             )
             .sessionManagement(session -> session
@@ -40,9 +55,47 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public AccesoManagementLocal accesoManagementLocal() {
+        return new AccesoManagementLocal();
+    }
+
+    // Roles por endpoint: GET para todo el personal; altas, cambios y bajas según el recurso
+    @Bean
+    public AutorizacionPorRoles autorizacionPorRoles() {
+        return AutorizacionPorRoles.builder()
+            .permitir(HttpMethod.GET, "/api/mascotas", ADMIN, VETERINARIO, ASISTENTE)
+            .permitir(HttpMethod.POST, "/api/mascotas", ADMIN, ASISTENTE)
+            .permitir(HttpMethod.PUT, "/api/mascotas", ADMIN, ASISTENTE)
+            .permitir(HttpMethod.DELETE, "/api/mascotas", ADMIN)
+            .permitir(HttpMethod.GET, "/api/duenos", ADMIN, VETERINARIO, ASISTENTE)
+            .permitir(HttpMethod.POST, "/api/duenos", ADMIN, ASISTENTE)
+            .permitir(HttpMethod.PUT, "/api/duenos", ADMIN)
+            .permitir(HttpMethod.DELETE, "/api/duenos", ADMIN)
+            .permitir(HttpMethod.GET, "/api/especies", ADMIN, VETERINARIO, ASISTENTE)
+            .permitir(HttpMethod.POST, "/api/especies", ADMIN, ASISTENTE)
+            .permitir(HttpMethod.PUT, "/api/especies", ADMIN, ASISTENTE)
+            .permitir(HttpMethod.DELETE, "/api/especies", ADMIN, ASISTENTE)
+            .permitir(HttpMethod.GET, "/api/razas", ADMIN, VETERINARIO, ASISTENTE)
+            .permitir(HttpMethod.POST, "/api/razas", ADMIN)
+            .permitir(HttpMethod.PUT, "/api/razas", ADMIN)
+            .permitir(HttpMethod.DELETE, "/api/razas", ADMIN)
+            .build();
+    }
+
+    // Verifica la firma y extrae los roles una vez por token; jwtAuthenticationConverter se aplica dentro
+    @Bean
+    public JwtAutenticacionCacheada jwtAutenticacionCacheada(JwtDecoder jwtDecoder, JwtAuthenticationConverter jwtAuthenticationConverter,
+                                                             MeterRegistry registry,
+                                                             @Value("${seguridad.jwt.cache.maximo:10000}") long maximo,
+                                                             @Value("${seguridad.jwt.cache.ttl-maximo:PT1H}") Duration ttlMaximo) {
+        return new JwtAutenticacionCacheada(jwtDecoder, jwtAuthenticationConverter, maximo, ttlMaximo, registry);
+    }
+
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter(
+            @Value("${seguridad.jwt.cliente-id:" + KeycloakRealmRoleConverter.CLIENTE_POR_DEFECTO + "}") String clienteId) {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
+        converter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter(clienteId));
         return converter;
     }
 
@@ -0,0 +1,44 @@
+package microvetcare.microvetcare.dueno.DTO;
+
+/**
+ * Fila del CSV de importación que no se creó.
+ * linea es el número de línea en el archivo (la cabecera es la línea 1).
+ */
+public class DuenoFilaRechazadaDTO {
+
+    private long linea;
+    private String rut;
+    private String motivo;
+
+    public DuenoFilaRechazadaDTO() {}
+
+    public DuenoFilaRechazadaDTO(long linea, String rut, String motivo) {
+        this.linea = linea;
+        this.rut = rut;
+        this.motivo = motivo;
+    }
+
+    public long getLinea() {
+        return linea;
+    }
+
+    public void setLinea(long linea) {
+        this.linea = linea;
+    }
+
+    public String getRut() {
+        return rut;
+    }
+
+    public void setRut(String rut) {
+        this.rut = rut;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+}
@@ -0,0 +1,51 @@
+package microvetcare.microvetcare.dueno.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de POST /api/duenos/import.
+ * rechazos trae el detalle de las primeras filas rechazadas (hasta el máximo configurado);
+ * rechazados es el total, aunque el detalle se haya truncado.
+ */
+public class DuenoImportacionResultadoDTO {
+
+    private long filasLeidas;
+    private long creados;
+    private long rechazados;
+    private List<DuenoFilaRechazadaDTO> rechazos = new ArrayList<>();
+
+    public DuenoImportacionResultadoDTO() {}
+
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    public void setFilasLeidas(long filasLeidas) {
+        this.filasLeidas = filasLeidas;
+    }
+
+    public long getCreados() {
+        return creados;
+    }
+
+    public void setCreados(long creados) {
+        this.creados = creados;
+    }
+
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    public void setRechazados(long rechazados) {
+        this.rechazados = rechazados;
+    }
+
+    public List<DuenoFilaRechazadaDTO> getRechazos() {
+        return rechazos;
+    }
+
+    public void setRechazos(List<DuenoFilaRechazadaDTO> rechazos) {
+        this.rechazos = rechazos;
+    }
+}
@@ -5,6 +5,9 @@ import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -17,15 +20,20 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.SequenceGenerator;
 import microvetcare.microvetcare.mascota.entity.Mascota;
 
 
 @Entity
 @Table(name = "dueno")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dueno")
 public class Dueno {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_dueno")
+    @SequenceGenerator(name = "seq_dueno", sequenceName = "seq_dueno", allocationSize = 50)
     @Column(name = "id_dueno")
     private Long id;
 
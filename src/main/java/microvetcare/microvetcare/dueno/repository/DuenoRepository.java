@@ -1,17 +1,66 @@
 package microvetcare.microvetcare.dueno.repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import microvetcare.microvetcare.dueno.DTO.DuenoDTO;
 import microvetcare.microvetcare.dueno.entity.Dueno;
 
 @Repository
 public interface DuenoRepository extends JpaRepository<Dueno, Long> {
 
     boolean existsByRut(String rut);
+    // Búsquedas por clave natural: el resultado (solo el ID) queda en la caché de consultas
+    // y la entidad se resuelve desde la región "dueno" de la caché L2
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Dueno> findByRut(String rut);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Dueno> findByEmail(String email);
     boolean existsByEmail(String email); 
+    // Solo para explicar una violación de unicidad al actualizar (el propio dueño no cuenta)
+    boolean existsByRutAndIdNot(String rut, Long id);
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    // --- LISTADO DE DUEÑOS EN DOS CONSULTAS (sin inicializar la colección mascotas por dueño) ---
+    @Query("SELECT new microvetcare.microvetcare.dueno.DTO.DuenoDTO(d.id, d.rut, d.nombre, d.apellido, "
+            + "d.direccion, d.telefono, d.email, d.estado) FROM Dueno d")
+    List<DuenoDTO> findAllDTO();
+
+    @Query("SELECT m.dueno.id AS duenoId, m.id AS mascotaId FROM Mascota m ORDER BY m.id")
+    List<MascotaIdPorDueno> findAllMascotaIds();
+
+    interface MascotaIdPorDueno {
+        Long getDuenoId();
+        Long getMascotaId();
+    }
+    // ------------------------------------------------------------------------------------------
+
+    // Claves naturales ya ocupadas: la importación CSV la llama una vez por bloque
+    @Query("SELECT d.rut AS rut, d.email AS email FROM Dueno d WHERE d.rut IN :ruts OR d.email IN :emails")
+    List<RutEmail> findRutEmailByRutInOrEmailIn(@Param("ruts") Collection<String> ruts,
+                                                @Param("emails") Collection<String> emails);
+
+    // Lectura completa para construir el filtro de Bloom de claves (FiltroClavesDueno)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d.rut AS rut, d.email AS email FROM Dueno d")
+    Stream<RutEmail> streamRutEmail();
+
+    interface RutEmail {
+        String getRut();
+        String getEmail();
+    }
 
 }
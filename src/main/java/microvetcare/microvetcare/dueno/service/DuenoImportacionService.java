@@ -0,0 +1,16 @@
+package microvetcare.microvetcare.dueno.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import microvetcare.microvetcare.dueno.DTO.DuenoImportacionResultadoDTO;
+
+public interface DuenoImportacionService {
+
+    /**
+     * Importa dueños desde un CSV (UTF-8, separado por coma o punto y coma) con cabecera.
+     * Columnas obligatorias: rut, nombre, apellido. Opcionales: direccion, telefono, email, estado.
+     * Las filas inválidas o duplicadas se informan en el resultado; el resto se confirma por bloques.
+     */
+    DuenoImportacionResultadoDTO importarCsv(InputStream csv) throws IOException;
+}
@@ -0,0 +1,315 @@
+package microvetcare.microvetcare.dueno.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import microvetcare.microvetcare.dueno.DTO.DuenoFilaRechazadaDTO;
+import microvetcare.microvetcare.dueno.DTO.DuenoImportacionResultadoDTO;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository.RutEmail;
+
+@Service
+public class DuenoImportacionServiceImpl implements DuenoImportacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DuenoImportacionServiceImpl.class);
+
+    // Oracle no acepta más de 1000 elementos en un IN, y la consulta de existentes usa uno por bloque
+    static final int MAX_TAMANO_BLOQUE = 1000;
+
+    private static final Pattern RUT = Pattern.compile("^[0-9]{7,8}-[0-9Kk]$");
+    private static final Pattern TELEFONO = Pattern.compile("\\d{11}");
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final List<String> COLUMNAS_OBLIGATORIAS = List.of("rut", "nombre", "apellido");
+
+    private final DuenoRepository duenoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final FiltroClavesDueno filtroClavesDueno;
+    private final int tamanoBloque;
+    private final int maxRechazosReportados;
+
+    public DuenoImportacionServiceImpl(DuenoRepository duenoRepository, PlatformTransactionManager transactionManager,
+                                       EntityManager entityManager, FiltroClavesDueno filtroClavesDueno,
+                                       @Value("${duenos.importacion.tamano-bloque:500}") int tamanoBloque,
+                                       @Value("${duenos.importacion.max-rechazos-reportados:1000}") int maxRechazosReportados) {
+        if (tamanoBloque < 1 || tamanoBloque > MAX_TAMANO_BLOQUE) {
+            throw new IllegalStateException("duenos.importacion.tamano-bloque debe estar entre 1 y " + MAX_TAMANO_BLOQUE);
+        }
+        this.duenoRepository = duenoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.filtroClavesDueno = filtroClavesDueno;
+        this.tamanoBloque = tamanoBloque;
+        this.maxRechazosReportados = maxRechazosReportados;
+    }
+
+    // Fila ya validada, pendiente de insertar
+    private record Fila(long linea, Dueno dueno) {}
+
+    @Override
+    public DuenoImportacionResultadoDTO importarCsv(InputStream csv) throws IOException {
+        DuenoImportacionResultadoDTO resultado = new DuenoImportacionResultadoDTO();
+        BufferedReader lector = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+
+        String cabecera = lector.readLine();
+        if (cabecera == null || cabecera.isBlank()) {
+            throw new IllegalArgumentException("El archivo CSV está vacío.");
+        }
+        // Excel guarda el CSV en UTF-8 con BOM
+        if (cabecera.startsWith("\uFEFF")) {
+            cabecera = cabecera.substring(1);
+        }
+        char separador = cabecera.indexOf(';') >= 0 && cabecera.indexOf(',') < 0 ? ';' : ',';
+        Map<String, Integer> columnas = leerCabecera(cabecera, separador);
+
+        List<Fila> bloque = new ArrayList<>(tamanoBloque);
+        long linea = 1;
+        int bloques = 0;
+        String texto;
+        while ((texto = lector.readLine()) != null) {
+            linea++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            resultado.setFilasLeidas(resultado.getFilasLeidas() + 1);
+            try {
+                bloque.add(new Fila(linea, convertirFila(separarCampos(texto, separador), columnas)));
+            } catch (IllegalArgumentException e) {
+                rechazar(resultado, linea, null, e.getMessage());
+            }
+            if (bloque.size() == tamanoBloque) {
+                procesarBloque(bloque, resultado);
+                bloque.clear();
+                log.info("Importación de dueños: bloque {} confirmado ({} filas leídas, {} creadas, {} rechazadas)",
+                        ++bloques, resultado.getFilasLeidas(), resultado.getCreados(), resultado.getRechazados());
+            }
+        }
+        if (!bloque.isEmpty()) {
+            procesarBloque(bloque, resultado);
+        }
+        log.info("Importación de dueños terminada: {} filas leídas, {} creadas, {} rechazadas",
+                resultado.getFilasLeidas(), resultado.getCreados(), resultado.getRechazados());
+        return resultado;
+    }
+
+    private Map<String, Integer> leerCabecera(String cabecera, char separador) {
+        List<String> nombres = separarCampos(cabecera, separador);
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < nombres.size(); i++) {
+            columnas.putIfAbsent(nombres.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        for (String obligatoria : COLUMNAS_OBLIGATORIAS) {
+            if (!columnas.containsKey(obligatoria)) {
+                throw new IllegalArgumentException("Falta la columna obligatoria '" + obligatoria + "' en la cabecera del CSV.");
+            }
+        }
+        return columnas;
+    }
+
+    private void procesarBloque(List<Fila> bloque, DuenoImportacionResultadoDTO resultado) {
+        // Duplicados dentro del bloque; los de bloques anteriores ya están confirmados y los detecta la consulta
+        Set<String> ruts = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Fila> candidatas = new ArrayList<>(bloque.size());
+        for (Fila fila : bloque) {
+            Dueno dueno = fila.dueno();
+            if (ruts.contains(dueno.getRut())) {
+                rechazar(resultado, fila.linea(), dueno.getRut(), "RUT repetido en el archivo: " + dueno.getRut());
+            } else if (dueno.getEmail() != null && emails.contains(dueno.getEmail())) {
+                rechazar(resultado, fila.linea(), dueno.getRut(), "Email repetido en el archivo: " + dueno.getEmail());
+            } else {
+                ruts.add(dueno.getRut());
+                if (dueno.getEmail() != null) {
+                    emails.add(dueno.getEmail());
+                }
+                candidatas.add(fila);
+            }
+        }
+
+        Set<String> rutsExistentes = new HashSet<>();
+        Set<String> emailsExistentes = new HashSet<>();
+        for (RutEmail existente : duenoRepository.findRutEmailByRutInOrEmailIn(ruts, emails)) {
+            rutsExistentes.add(existente.getRut());
+            emailsExistentes.add(existente.getEmail());
+        }
+        List<Fila> nuevas = new ArrayList<>(candidatas.size());
+        for (Fila fila : candidatas) {
+            Dueno dueno = fila.dueno();
+            if (rutsExistentes.contains(dueno.getRut())) {
+                rechazar(resultado, fila.linea(), dueno.getRut(), "Ya existe un dueño con el RUT: " + dueno.getRut());
+            } else if (dueno.getEmail() != null && emailsExistentes.contains(dueno.getEmail())) {
+                rechazar(resultado, fila.linea(), dueno.getRut(), "Ya existe un dueño con el Email: " + dueno.getEmail());
+            } else {
+                nuevas.add(fila);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+
+        try {
+            insertar(nuevas);
+            resultado.setCreados(resultado.getCreados() + nuevas.size());
+        } catch (DataIntegrityViolationException e) {
+            // Otro proceso insertó el mismo RUT o email entre la consulta y el commit: se revierte el
+            // bloque y se reintenta fila por fila para rechazar solo las que chocan
+            log.warn("Importación de dueños: conflicto de unicidad en un bloque, se reintenta fila por fila");
+            for (Fila fila : nuevas) {
+                try {
+                    insertar(List.of(fila));
+                    resultado.setCreados(resultado.getCreados() + 1);
+                } catch (DataIntegrityViolationException conflicto) {
+                    rechazar(resultado, fila.linea(), fila.dueno().getRut(), motivoConflicto(fila.dueno()));
+                }
+            }
+        }
+    }
+
+    // Igual que saveDueno: la violación puede ser de unicidad o de otra restricción (NOT NULL, largo, CHECK)
+    private String motivoConflicto(Dueno dueno) {
+        if (duenoRepository.existsByRut(dueno.getRut())) {
+            return "Ya existe un dueño con el RUT: " + dueno.getRut();
+        }
+        if (dueno.getEmail() != null && duenoRepository.existsByEmail(dueno.getEmail())) {
+            return "Ya existe un dueño con el Email: " + dueno.getEmail();
+        }
+        return "La fila no cumple una restricción de la base de datos";
+    }
+
+    private void insertar(List<Fila> filas) {
+        filas.forEach(fila -> filtroClavesDueno.registrar(fila.dueno().getRut(), fila.dueno().getEmail()));
+        transactionTemplate.executeWithoutResult(status -> {
+            // Entidades nuevas en cada intento: un intento revertido deja IDs asignados en las anteriores
+            List<Dueno> duenos = new ArrayList<>(filas.size());
+            for (Fila fila : filas) {
+                Dueno original = fila.dueno();
+                duenos.add(new Dueno(original.getRut(), original.getNombre(), original.getApellido(),
+                        original.getDireccion(), original.getTelefono(), original.getEmail(), original.getEstado()));
+            }
+            duenoRepository.saveAllAndFlush(duenos);
+            // Si el EntityManager sobrevive a la transacción (open-in-view) sin clear acumularía todo el archivo
+            entityManager.clear();
+        });
+    }
+
+    private void rechazar(DuenoImportacionResultadoDTO resultado, long linea, String rut, String motivo) {
+        resultado.setRechazados(resultado.getRechazados() + 1);
+        if (resultado.getRechazos().size() < maxRechazosReportados) {
+            resultado.getRechazos().add(new DuenoFilaRechazadaDTO(linea, rut, motivo));
+        }
+    }
+
+    private Dueno convertirFila(List<String> campos, Map<String, Integer> columnas) {
+        String rut = campo(campos, columnas, "rut");
+        String nombre = campo(campos, columnas, "nombre");
+        String apellido = campo(campos, columnas, "apellido");
+        String direccion = campo(campos, columnas, "direccion");
+        String telefono = campo(campos, columnas, "telefono");
+        String email = campo(campos, columnas, "email");
+
+        if (rut == null || !RUT.matcher(rut).matches()) {
+            throw new IllegalArgumentException("El RUT no es válido");
+        }
+        if (nombre == null || nombre.length() > 50) {
+            throw new IllegalArgumentException("El nombre es obligatorio y no puede superar 50 caracteres");
+        }
+        if (apellido == null || apellido.length() > 50) {
+            throw new IllegalArgumentException("El apellido es obligatorio y no puede superar 50 caracteres");
+        }
+        if (direccion != null && direccion.length() > 200) {
+            throw new IllegalArgumentException("La dirección no puede superar 200 caracteres");
+        }
+        // Igual que POST /api/duenos/create: se aceptan espacios en el teléfono
+        if (telefono != null) {
+            telefono = telefono.replaceAll("\\s+", "");
+            if (!TELEFONO.matcher(telefono).matches()) {
+                throw new IllegalArgumentException("El teléfono debe contener exactamente 11 dígitos");
+            }
+        }
+        if (email != null && (email.length() > 250 || !EMAIL.matcher(email).matches())) {
+            throw new IllegalArgumentException("El formato del correo electrónico no es válido");
+        }
+        return new Dueno(rut, nombre, apellido, direccion, telefono, email,
+                convertirEstado(campo(campos, columnas, "estado")));
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> columnas, String nombre) {
+        Integer indice = columnas.get(nombre);
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice);
+        return valor.isEmpty() ? null : valor;
+    }
+
+    // Sin valor el dueño queda activo, como en el alta manual
+    private static Boolean convertirEstado(String valor) {
+        if (valor == null) {
+            return true;
+        }
+        switch (valor.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "s", "si", "sí", "activo":
+                return true;
+            case "false", "0", "n", "no", "inactivo":
+                return false;
+            default:
+                throw new IllegalArgumentException("El estado no es válido: " + valor);
+        }
+    }
+
+    /**
+     * Separa una línea CSV respetando comillas dobles ("" dentro de comillas es una comilla literal).
+     * Los campos entre comillas no pueden contener saltos de línea.
+     */
+    static List<String> separarCampos(String linea, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c != '"') {
+                    actual.append(c);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar en la fila");
+        }
+        campos.add(actual.toString().trim());
+        return campos;
+    }
+}
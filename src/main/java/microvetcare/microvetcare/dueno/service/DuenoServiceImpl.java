@@ -1,22 +1,36 @@
 package microvetcare.microvetcare.dueno.service;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import microvetcare.microvetcare.dueno.DTO.DuenoDTO;
 import microvetcare.microvetcare.dueno.entity.Dueno;
 import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository.MascotaIdPorDueno;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
 
 @Service
 public class DuenoServiceImpl implements DuenoService {
 
     private final DuenoRepository duenoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate lectura;
+    private final FiltroClavesDueno filtroClavesDueno;
 
-    public DuenoServiceImpl(DuenoRepository duenoRepository) {
+    public DuenoServiceImpl(DuenoRepository duenoRepository, PlatformTransactionManager transactionManager,
+                            FiltroClavesDueno filtroClavesDueno) {
         this.duenoRepository = duenoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.filtroClavesDueno = filtroClavesDueno;
     }
 
     private DuenoDTO convertirADTO(Dueno dueno) {
@@ -39,8 +53,13 @@ public class DuenoServiceImpl implements DuenoService {
     @Override
     @Transactional(readOnly = true)
     public List<DuenoDTO> findAllDuenos() {
-        List<Dueno> duenos = duenoRepository.findAll();
-        return duenos.stream().map(this::convertirADTO).toList();
+        // Una consulta para los dueños y otra para todos los IDs de mascotas, agrupados en memoria
+        List<DuenoDTO> duenos = duenoRepository.findAllDTO();
+        Map<Long, List<Long>> mascotasPorDueno = duenoRepository.findAllMascotaIds().stream()
+                .collect(Collectors.groupingBy(MascotaIdPorDueno::getDuenoId,
+                        Collectors.mapping(MascotaIdPorDueno::getMascotaId, Collectors.toList())));
+        duenos.forEach(dueno -> dueno.setMascotaIds(mascotasPorDueno.getOrDefault(dueno.getId(), List.of())));
+        return duenos;
     }
 
     @Override
@@ -49,25 +68,30 @@ public class DuenoServiceImpl implements DuenoService {
         return duenoRepository.findById(id).map(this::convertirADTO);
     }
 
+    // Sin @Transactional: el INSERT corre en la transacción de saveAndFlush y, si viola la unicidad de
+    // rut o email, esa transacción ya está revertida cuando se consulta cuál de los dos chocó
     @Override
-    @Transactional
     public DuenoDTO saveDueno(DuenoDTO duenoDTO) {
         // --- CAMBIO AQUÍ: Validar ID nulo primero ---
         if (duenoDTO.getId() != null) {
             throw new IllegalArgumentException("El ID debe ser nulo para un nuevo dueño.");
         }
 
-        if (duenoRepository.existsByRut(duenoDTO.getRut())) {
-            throw new IllegalArgumentException("Ya existe un dueño con el RUT: " + duenoDTO.getRut());
-        }
-        if (duenoDTO.getEmail() != null && duenoRepository.existsByEmail(duenoDTO.getEmail())) {
-            throw new IllegalArgumentException("Ya existe un dueño con el Email: " + duenoDTO.getEmail());
+        filtroClavesDueno.registrar(duenoDTO.getRut(), duenoDTO.getEmail());
+        try {
+            Dueno saved = duenoRepository.saveAndFlush(convertirAEntidad(duenoDTO));
+            // Se arma el DTO sin pasar por getMascotas(): aquí ya no hay transacción y un dueño nuevo no tiene mascotas
+            return new DuenoDTO(saved.getId(), saved.getRut(), saved.getNombre(), saved.getApellido(),
+                    saved.getDireccion(), saved.getTelefono(), saved.getEmail(), saved.getEstado());
+        } catch (DataIntegrityViolationException e) {
+            if (duenoRepository.existsByRut(duenoDTO.getRut())) {
+                throw new IllegalArgumentException("Ya existe un dueño con el RUT: " + duenoDTO.getRut());
+            }
+            if (duenoDTO.getEmail() != null && duenoRepository.existsByEmail(duenoDTO.getEmail())) {
+                throw new IllegalArgumentException("Ya existe un dueño con el Email: " + duenoDTO.getEmail());
+            }
+            throw e;
         }
-
-        Dueno dueno = convertirAEntidad(duenoDTO);
-        Dueno savedDueno = duenoRepository.save(dueno);
-
-        return convertirADTO(savedDueno);
     }
     
     /*
@@ -92,33 +116,35 @@ public class DuenoServiceImpl implements DuenoService {
     }
     */
 
+    // Igual que saveDueno: la unicidad la valida la base de datos al hacer flush y solo si falla se
+    // consulta el motivo, ya fuera de la transacción revertida
     @Override
-    @Transactional
     public DuenoDTO updateDueno(Long id, DuenoDTO duenoDTO) {
-        Dueno duenoExistente = duenoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Dueño no encontrado con ID: " + id));
-        if (duenoDTO.getRut() != null && !duenoDTO.getRut().equals(duenoExistente.getRut())) {
-            if (duenoRepository.findByRut(duenoDTO.getRut()).isPresent()) {
+        filtroClavesDueno.registrar(duenoDTO.getRut(), duenoDTO.getEmail());
+        try {
+            return transactionTemplate.execute(status -> {
+                Dueno duenoExistente = duenoRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Dueño no encontrado con ID: " + id));
+                duenoExistente.setRut(duenoDTO.getRut() != null ? duenoDTO.getRut() : duenoExistente.getRut());
+                duenoExistente.setEmail(duenoDTO.getEmail() != null ? duenoDTO.getEmail() : duenoExistente.getEmail());
+                duenoExistente.setNombre(duenoDTO.getNombre() != null ? duenoDTO.getNombre() : duenoExistente.getNombre());
+                duenoExistente.setApellido(duenoDTO.getApellido() != null ? duenoDTO.getApellido() : duenoExistente.getApellido());
+                duenoExistente.setDireccion(duenoDTO.getDireccion() != null ? duenoDTO.getDireccion() : duenoExistente.getDireccion());
+                duenoExistente.setTelefono(duenoDTO.getTelefono() != null ? duenoDTO.getTelefono() : duenoExistente.getTelefono());
+                duenoExistente.setEstado(duenoDTO.getEstado() != null ? duenoDTO.getEstado() : duenoExistente.getEstado());
+
+                Dueno updatedDueno = duenoRepository.saveAndFlush(duenoExistente);
+                return convertirADTO(updatedDueno);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (duenoDTO.getRut() != null && duenoRepository.existsByRutAndIdNot(duenoDTO.getRut(), id)) {
                 throw new IllegalArgumentException("El RUT " + duenoDTO.getRut() + " ya está registrado para otro dueño.");
             }
-            duenoExistente.setRut(duenoDTO.getRut());
-        }
-
-        if (duenoDTO.getEmail() != null && !duenoDTO.getEmail().equals(duenoExistente.getEmail())) {
-            if (duenoRepository.findByEmail(duenoDTO.getEmail()).isPresent()) {
+            if (duenoDTO.getEmail() != null && duenoRepository.existsByEmailAndIdNot(duenoDTO.getEmail(), id)) {
                 throw new IllegalArgumentException("El Email " + duenoDTO.getEmail() + " ya está registrado para otro dueño.");
             }
-            duenoExistente.setEmail(duenoDTO.getEmail());
+            throw e;
         }
-
-        duenoExistente.setNombre(duenoDTO.getNombre() != null ? duenoDTO.getNombre() : duenoExistente.getNombre());
-        duenoExistente.setApellido(duenoDTO.getApellido() != null ? duenoDTO.getApellido() : duenoExistente.getApellido());
-        duenoExistente.setDireccion(duenoDTO.getDireccion() != null ? duenoDTO.getDireccion() : duenoExistente.getDireccion());
-        duenoExistente.setTelefono(duenoDTO.getTelefono() != null ? duenoDTO.getTelefono() : duenoExistente.getTelefono());
-        duenoExistente.setEstado(duenoDTO.getEstado() != null ? duenoDTO.getEstado() : duenoExistente.getEstado());
-
-        Dueno updatedDueno = duenoRepository.save(duenoExistente);
-        return convertirADTO(updatedDueno);
     }
 
     @Override
@@ -130,15 +156,28 @@ public class DuenoServiceImpl implements DuenoService {
         duenoRepository.deleteById(id);
     }
 
+    // Sin @Transactional: si el filtro descarta la clave no se abre transacción ni se pide conexión al pool
     @Override
-    @Transactional(readOnly = true)
     public Optional<DuenoDTO> findDuenoByRut(String rut) {
-        return duenoRepository.findByRut(rut).map(this::convertirADTO);
+        if (!filtroClavesDueno.podriaExistirRut(rut)) {
+            return Optional.empty();
+        }
+        Optional<DuenoDTO> dueno = lectura.execute(status -> duenoRepository.findByRut(rut).map(this::convertirADTO));
+        if (dueno.isEmpty()) {
+            filtroClavesDueno.falsoPositivoRut();
+        }
+        return dueno;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<DuenoDTO> findDuenoByEmail(String email) {
-        return duenoRepository.findByEmail(email).map(this::convertirADTO);
+        if (!filtroClavesDueno.podriaExistirEmail(email)) {
+            return Optional.empty();
+        }
+        Optional<DuenoDTO> dueno = lectura.execute(status -> duenoRepository.findByEmail(email).map(this::convertirADTO));
+        if (dueno.isEmpty()) {
+            filtroClavesDueno.falsoPositivoEmail();
+        }
+        return dueno;
     }
 }
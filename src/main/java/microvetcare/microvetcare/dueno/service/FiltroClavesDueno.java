@@ -0,0 +1,220 @@
+package microvetcare.microvetcare.dueno.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import microvetcare.microvetcare.cache.FiltroBloom;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository.RutEmail;
+
+/**
+ * Filtros de Bloom con los RUT y emails registrados, para responder sin ir a la base de datos
+ * las búsquedas de claves que seguro no existen (la validación en vivo del RUT en recepción).
+ *
+ * Se construyen al arrancar con una sola lectura en streaming de la tabla y se reconstruyen
+ * periódicamente, lo que descarta los valores borrados y recoge los dueños creados por otras
+ * instancias. Las altas y ediciones de esta instancia se registran antes de escribir en la base:
+ * si la transacción falla queda solo un falso positivo, nunca un falso negativo.
+ *
+ * Un "no existe" del filtro se responde como 404 sin consultar la base, así que solo es correcto si
+ * todas las escrituras en DUENO pasan por esta instancia. Con varias réplicas, o con cargas directas en
+ * Oracle, un dueño recién creado daría un falso "no encontrado" hasta la siguiente reconstrucción.
+ * Por eso viene desactivado (duenos.filtro-bloom.habilitado=false) y solo se debe activar en un
+ * despliegue de una sola instancia que sea la única que escribe dueños.
+ */
+@Component
+public class FiltroClavesDueno {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroClavesDueno.class);
+
+    private record Filtros(FiltroBloom ruts, FiltroBloom emails) {
+
+        void agregar(String rut, String email) {
+            if (rut != null) {
+                ruts.agregar(rut);
+            }
+            if (email != null) {
+                emails.agregar(email);
+            }
+        }
+    }
+
+    private record Clave(String rut, String email) {}
+
+    private final DuenoRepository duenoRepository;
+    private final TransactionTemplate lectura;
+    private final boolean habilitado;
+    private final double tasaFalsosPositivos;
+    private final long capacidadMinima;
+
+    // null mientras no se ha construido: todas las claves se consultan en la base de datos
+    private volatile Filtros filtros;
+    // Claves registradas desde que empezó la última reconstrucción; protegidas por this
+    private List<Clave> recientes = new ArrayList<>();
+    private volatile long ultimoConteo;
+
+    private final Counter rutsDescartados;
+    private final Counter rutsConsultados;
+    private final Counter rutsFalsosPositivos;
+    private final Counter emailsDescartados;
+    private final Counter emailsConsultados;
+    private final Counter emailsFalsosPositivos;
+
+    public FiltroClavesDueno(DuenoRepository duenoRepository, PlatformTransactionManager transactionManager,
+                             MeterRegistry registry,
+                             @Value("${duenos.filtro-bloom.habilitado:false}") boolean habilitado,
+                             @Value("${duenos.filtro-bloom.tasa-falsos-positivos:0.01}") double tasaFalsosPositivos,
+                             @Value("${duenos.filtro-bloom.capacidad-minima:100000}") long capacidadMinima) {
+        this.duenoRepository = duenoRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        this.capacidadMinima = capacidadMinima;
+
+        this.rutsDescartados = contador(registry, "rut", "descartada");
+        this.rutsConsultados = contador(registry, "rut", "consultada");
+        this.rutsFalsosPositivos = contador(registry, "rut", "falso_positivo");
+        this.emailsDescartados = contador(registry, "email", "descartada");
+        this.emailsConsultados = contador(registry, "email", "consultada");
+        this.emailsFalsosPositivos = contador(registry, "email", "falso_positivo");
+        tasaEstimada(registry, "rut", Filtros::ruts);
+        tasaEstimada(registry, "email", Filtros::emails);
+    }
+
+    private static Counter contador(MeterRegistry registry, String clave, String resultado) {
+        return Counter.builder("duenos.filtro.consultas")
+                .description("Búsquedas de dueños por clave natural según la respuesta del filtro de Bloom")
+                .tag("clave", clave)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private void tasaEstimada(MeterRegistry registry, String clave, Function<Filtros, FiltroBloom> filtro) {
+        Gauge.builder("duenos.filtro.falsos_positivos.tasa", this,
+                        f -> f.filtros != null ? filtro.apply(f.filtros).tasaFalsosPositivosEstimada() : Double.NaN)
+                .description("Tasa de falsos positivos estimada del filtro según su llenado actual")
+                .tag("clave", clave)
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${duenos.filtro-bloom.intervalo-reconstruccion:PT30M}",
+               fixedDelayString = "${duenos.filtro-bloom.intervalo-reconstruccion:PT30M}")
+    public void reconstruirSinFallar() {
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            // Se sigue usando el filtro anterior (o ninguno, si es el primero) hasta el próximo intento
+            log.warn("No se pudo reconstruir el filtro de claves de dueños: {}", e.getMessage());
+        }
+    }
+
+    /** Lee todos los RUT y emails en una sola consulta y reemplaza los filtros. */
+    public void reconstruir() {
+        if (!habilitado) {
+            return;
+        }
+        List<Clave> anteriores;
+        synchronized (this) {
+            anteriores = recientes;
+            recientes = new ArrayList<>();
+        }
+        long capacidad = Math.max(capacidadMinima, 2 * ultimoConteo);
+        Filtros nuevos = new Filtros(new FiltroBloom(capacidad, tasaFalsosPositivos),
+                new FiltroBloom(capacidad, tasaFalsosPositivos));
+        long filas;
+        try {
+            filas = lectura.execute(status -> {
+                long leidas = 0;
+                try (Stream<RutEmail> claves = duenoRepository.streamRutEmail()) {
+                    for (RutEmail clave : (Iterable<RutEmail>) claves::iterator) {
+                        nuevos.agregar(clave.getRut(), clave.getEmail());
+                        leidas++;
+                    }
+                }
+                return leidas;
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                anteriores.addAll(recientes);
+                recientes = anteriores;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            // Lo registrado mientras corría la lectura (o justo antes, aún sin confirmar) puede no
+            // haber salido en ella
+            anteriores.forEach(c -> nuevos.agregar(c.rut(), c.email()));
+            recientes.forEach(c -> nuevos.agregar(c.rut(), c.email()));
+            filtros = nuevos;
+        }
+        ultimoConteo = filas;
+        log.info("Filtro de claves de dueños construido con {} dueños (capacidad {}, {} bits y {} hashes por clave)",
+                filas, capacidad, nuevos.ruts().getCantidadBits(), nuevos.ruts().getCantidadHashes());
+    }
+
+    /** Registra las claves de un dueño que se va a crear o actualizar. Llamar antes de escribir. */
+    public synchronized void registrar(String rut, String email) {
+        if (!habilitado) {
+            return;
+        }
+        Filtros actuales = filtros;
+        if (actuales != null) {
+            actuales.agregar(rut, email);
+        }
+        recientes.add(new Clave(rut, email));
+    }
+
+    /** false solo si es seguro que ningún dueño tiene ese RUT. */
+    public boolean podriaExistirRut(String rut) {
+        return podriaExistir(rut, Filtros::ruts, rutsDescartados, rutsConsultados);
+    }
+
+    /** false solo si es seguro que ningún dueño tiene ese email. */
+    public boolean podriaExistirEmail(String email) {
+        return podriaExistir(email, Filtros::emails, emailsDescartados, emailsConsultados);
+    }
+
+    /** La base de datos no encontró un RUT que el filtro dejó pasar. */
+    public void falsoPositivoRut() {
+        if (filtros != null) {
+            rutsFalsosPositivos.increment();
+        }
+    }
+
+    /** La base de datos no encontró un email que el filtro dejó pasar. */
+    public void falsoPositivoEmail() {
+        if (filtros != null) {
+            emailsFalsosPositivos.increment();
+        }
+    }
+
+    private boolean podriaExistir(String valor, Function<Filtros, FiltroBloom> filtro, Counter descartadas, Counter consultadas) {
+        Filtros actuales = filtros;
+        if (actuales == null || valor == null) {
+            return true;
+        }
+        if (!filtro.apply(actuales).podriaContener(valor)) {
+            descartadas.increment();
+            return false;
+        }
+        consultadas.increment();
+        return true;
+    }
+}
@@ -4,6 +4,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -12,15 +15,20 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.SequenceGenerator;
 import microvetcare.microvetcare.raza.entity.Raza;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
 @Table(name = "especie")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "especie")
 public class Especie {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_especie")
+    @SequenceGenerator(name = "seq_especie", sequenceName = "seq_especie", allocationSize = 50)
     @Column(name = "id_especie")
     private Long id;
 
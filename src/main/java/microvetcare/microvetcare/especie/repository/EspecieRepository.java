@@ -1,11 +1,16 @@
 package microvetcare.microvetcare.especie.repository;
 import microvetcare.microvetcare.especie.entity.Especie;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
 
 
 public interface EspecieRepository extends JpaRepository<Especie, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Especie> findByNombre(String nombre);
     boolean existsByNombre(String nombre);
     boolean existsByNombreEspecie(String nombreEspecie);
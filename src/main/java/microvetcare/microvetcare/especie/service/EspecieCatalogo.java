@@ -0,0 +1,50 @@
+package microvetcare.microvetcare.especie.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import microvetcare.microvetcare.cache.CatalogoCache;
+import microvetcare.microvetcare.especie.DTO.EspecieDTO;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.especie.repository.EspecieRepository;
+
+/**
+ * Catálogo de especies en memoria, usado por EspecieServiceImpl para las lecturas.
+ */
+@Component
+public class EspecieCatalogo extends CatalogoCache<EspecieDTO> {
+
+    private final EspecieRepository especieRepository;
+
+    public EspecieCatalogo(EspecieRepository especieRepository, MeterRegistry registry) {
+        super("especie", EspecieDTO::getId, EspecieDTO::getNombre, registry);
+        this.especieRepository = especieRepository;
+    }
+
+    static EspecieDTO convertToDTO(Especie especie) {
+        return new EspecieDTO(
+            especie.getId(),
+            especie.getNombreEspecie(),
+            especie.getNombre(),
+            especie.getEstado()
+        );
+    }
+
+    @Override
+    protected List<EspecieDTO> cargarDesdeBaseDeDatos() {
+        return especieRepository.findAll().stream().map(EspecieCatalogo::convertToDTO).toList();
+    }
+
+    @Override
+    protected Optional<EspecieDTO> buscarEnBaseDeDatos(Long id) {
+        return especieRepository.findById(id).map(EspecieCatalogo::convertToDTO);
+    }
+
+    @Override
+    protected Optional<EspecieDTO> buscarEnBaseDeDatosPorNombre(String nombre) {
+        return especieRepository.findByNombre(nombre).map(EspecieCatalogo::convertToDTO);
+    }
+}
@@ -7,6 +7,7 @@ import microvetcare.microvetcare.especie.DTO.EspecieDTO;
 import microvetcare.microvetcare.especie.entity.Especie;
 import microvetcare.microvetcare.especie.repository.EspecieRepository;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,23 +15,24 @@ import java.util.Optional;
 public class EspecieServiceImpl implements EspecieService{
 
     private final EspecieRepository especieRepository;
+    private final EspecieCatalogo especieCatalogo;
+    private final RazaCatalogo razaCatalogo;
 
-    public EspecieServiceImpl(EspecieRepository especieRepository) {
+    public EspecieServiceImpl(EspecieRepository especieRepository, EspecieCatalogo especieCatalogo, RazaCatalogo razaCatalogo) {
         this.especieRepository = especieRepository;
+        this.especieCatalogo = especieCatalogo;
+        this.razaCatalogo = razaCatalogo;
     }
 
+    // Lecturas desde el catálogo en memoria, sin transacción para no tomar una conexión del pool
     @Override
-    @Transactional(readOnly = true)
     public List<EspecieDTO> findAllEspecies() {
-        return especieRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .toList();
+        return especieCatalogo.todos();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<EspecieDTO> findEspecieById(Long id) {
-        return especieRepository.findById(id).map(this::convertToDTO);
+        return especieCatalogo.buscarPorId(id);
     }
 
     @Override
@@ -45,7 +47,9 @@ public class EspecieServiceImpl implements EspecieService{
         }
 
         Especie especie = convertToEntity(especieDTO);
-        return convertToDTO(especieRepository.save(especie));
+        EspecieDTO savedEspecie = convertToDTO(especieRepository.save(especie));
+        especieCatalogo.guardado(savedEspecie);
+        return savedEspecie;
     }
 
    @Override
@@ -72,7 +76,9 @@ public class EspecieServiceImpl implements EspecieService{
             existingEspecie.setEstado(especieDTO.getEstado());
         }
 
-        return convertToDTO(especieRepository.save(existingEspecie));
+        EspecieDTO updatedEspecie = convertToDTO(especieRepository.save(existingEspecie));
+        especieCatalogo.guardado(updatedEspecie);
+        return updatedEspecie;
     }
 
     @Override
@@ -82,12 +88,13 @@ public class EspecieServiceImpl implements EspecieService{
             throw new ResourceNotFoundException("Especie no encontrada con ID: " + id);
         }
         especieRepository.deleteById(id);
+        especieCatalogo.eliminado(id);
+        razaCatalogo.especieEliminada(id);
     }
      
     @Override
-    @Transactional(readOnly = true)
     public Optional<EspecieDTO> findEspecieByNombre(String nombre) {
-        return especieRepository.findByNombre(nombre).map(this::convertToDTO);
+        return especieCatalogo.buscarPorNombre(nombre);
     }
 
     @Override
@@ -97,12 +104,7 @@ public class EspecieServiceImpl implements EspecieService{
 
     @Override
     public EspecieDTO convertToDTO(Especie especie) {
-        return new EspecieDTO(
-            especie.getId(),
-            especie.getNombreEspecie(),
-            especie.getNombre(),
-            especie.getEstado()
-        );
+        return EspecieCatalogo.convertToDTO(especie);
     }
 
     public Especie convertToEntity(EspecieDTO especieDTO) {
@@ -0,0 +1,63 @@
+package microvetcare.microvetcare.mascota.DTO;
+
+/**
+ * Resultado de un elemento de POST /api/mascotas/bulk.
+ * indice es la posición del elemento en la lista enviada; si fue creada, mascota trae el registro
+ * guardado, y si no, error explica por qué se rechazó.
+ */
+public class MascotaLoteResultadoDTO {
+
+    private int indice;
+    private boolean creada;
+    private MascotaDTO mascota;
+    private String error;
+
+    public MascotaLoteResultadoDTO() {}
+
+    public MascotaLoteResultadoDTO(int indice, boolean creada, MascotaDTO mascota, String error) {
+        this.indice = indice;
+        this.creada = creada;
+        this.mascota = mascota;
+        this.error = error;
+    }
+
+    public static MascotaLoteResultadoDTO creada(int indice, MascotaDTO mascota) {
+        return new MascotaLoteResultadoDTO(indice, true, mascota, null);
+    }
+
+    public static MascotaLoteResultadoDTO rechazada(int indice, String error) {
+        return new MascotaLoteResultadoDTO(indice, false, null, error);
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public boolean isCreada() {
+        return creada;
+    }
+
+    public void setCreada(boolean creada) {
+        this.creada = creada;
+    }
+
+    public MascotaDTO getMascota() {
+        return mascota;
+    }
+
+    public void setMascota(MascotaDTO mascota) {
+        this.mascota = mascota;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
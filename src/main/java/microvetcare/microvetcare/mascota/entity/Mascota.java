@@ -14,6 +14,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.SequenceGenerator;
 import microvetcare.microvetcare.dueno.entity.Dueno;
 import microvetcare.microvetcare.raza.entity.Raza;
 
@@ -22,7 +23,8 @@ import microvetcare.microvetcare.raza.entity.Raza;
 public class Mascota {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_mascota")
+    @SequenceGenerator(name = "seq_mascota", sequenceName = "seq_mascota", allocationSize = 50)
     @Column(name = "id_mascota")
     private Long id;
 
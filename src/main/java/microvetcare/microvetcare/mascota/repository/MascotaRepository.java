@@ -3,31 +3,73 @@ package microvetcare.microvetcare.mascota.repository;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional; // Importar Optional
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query; // Importar Query
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import microvetcare.microvetcare.dueno.entity.Dueno;
+import jakarta.persistence.QueryHint;
+
+import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
 import microvetcare.microvetcare.mascota.entity.Mascota;
-import microvetcare.microvetcare.raza.entity.Raza;
 
 public interface MascotaRepository extends JpaRepository <Mascota, Long> {
 
+    int STREAM_FETCH_SIZE = 500;
+
+    // Proyección directa a MascotaDTO: solo las columnas del DTO, sin hidratar entidades
+    // ni guardar snapshots para dirty-checking
+    String SELECT_MASCOTA_DTO = "SELECT new microvetcare.microvetcare.mascota.DTO.MascotaDTO("
+            + "m.id, m.nombre, m.chip, m.genero, m.estado, m.fechaNacimiento, "
+            + "d.id, r.id, CONCAT(d.nombre, ' ', d.apellido), r.nombre) "
+            + "FROM Mascota m JOIN m.dueno d JOIN m.raza r";
+
     // --- NUEVOS MÉTODOS CON JOIN FETCH PARA OPTIMIZAR CONSULTAS ---
     @Query("SELECT m FROM Mascota m JOIN FETCH m.dueno JOIN FETCH m.raza")
     List<Mascota> findAllWithDuenoAndRaza();
 
     @Query("SELECT m FROM Mascota m JOIN FETCH m.dueno JOIN FETCH m.raza WHERE m.id = :id")
     Optional<Mascota> findByIdWithDuenoAndRaza(Long id);
+
+    // Paginación por cursor (keyset): usa el índice de la PK id_mascota en vez de OFFSET
+    @Query(SELECT_MASCOTA_DTO + " WHERE m.id > :after ORDER BY m.id")
+    List<MascotaDTO> findDTOPage(@Param("after") Long after, Limit limit);
+
+    // Lectura en streaming para exportaciones: el driver de Oracle trae 10 filas por round-trip por defecto
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Mascota m JOIN FETCH m.dueno JOIN FETCH m.raza ORDER BY m.id")
+    Stream<Mascota> streamAllWithDuenoAndRaza();
     // -------------------------------------------------------------
 
-    List<Mascota> findByNombre(String nombre);
-    List<Mascota> findByDueno(Dueno dueno); // Considera si quieres optimizar con JOIN FETCH aquí también
-    List<Mascota> findByDuenoId(Long duenoId); // Considera si quieres optimizar con JOIN FETCH aquí también
-    List<Mascota> findByRaza(Raza raza); // Considera si quieres optimizar con JOIN FETCH aquí también
-    List<Mascota> findByRazaId(Long razaId); // Considera si quieres optimizar con JOIN FETCH aquí también
-    List<Mascota> findByGenero(String genero); // Considera si quieres optimizar con JOIN FETCH aquí también
-    List<Mascota> findByFechaNacimientoAfter(LocalDate fecha); // Considera si quieres optimizar con JOIN FETCH aquí también
-    List<Mascota> findByFechaNacimientoBefore(LocalDate fecha); // Considera si quieres optimizar con JOIN FETCH aquí también
+    // --- PROYECCIONES A DTO PARA LOS LISTADOS ---
+    @Query(SELECT_MASCOTA_DTO)
+    List<MascotaDTO> findAllDTO();
+
+    @Query(SELECT_MASCOTA_DTO + " WHERE m.nombre = :nombre")
+    List<MascotaDTO> findDTOByNombre(@Param("nombre") String nombre);
+
+    @Query(SELECT_MASCOTA_DTO + " WHERE d.id = :duenoId")
+    List<MascotaDTO> findDTOByDuenoId(@Param("duenoId") Long duenoId);
+
+    @Query(SELECT_MASCOTA_DTO + " WHERE r.id = :razaId")
+    List<MascotaDTO> findDTOByRazaId(@Param("razaId") Long razaId);
+
+    @Query(SELECT_MASCOTA_DTO + " WHERE m.genero = :genero")
+    List<MascotaDTO> findDTOByGenero(@Param("genero") String genero);
+
+    @Query(SELECT_MASCOTA_DTO + " WHERE m.fechaNacimiento > :fecha")
+    List<MascotaDTO> findDTOByFechaNacimientoAfter(@Param("fecha") LocalDate fecha);
+
+    @Query(SELECT_MASCOTA_DTO + " WHERE m.fechaNacimiento < :fecha")
+    List<MascotaDTO> findDTOByFechaNacimientoBefore(@Param("fecha") LocalDate fecha);
+    // -------------------------------------------
 
 }
 
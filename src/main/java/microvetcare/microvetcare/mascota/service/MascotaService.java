@@ -3,14 +3,20 @@ package microvetcare.microvetcare.mascota.service;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaLoteResultadoDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaPageDTO;
 
 public interface MascotaService {
 
     List<MascotaDTO> findAllMascotas();
+    MascotaPageDTO findMascotasPage(Long after, int limit);
+    void streamAllMascotas(Consumer<MascotaDTO> consumer);
     Optional<MascotaDTO> findMascotaById(Long id);
     MascotaDTO saveMascota(MascotaDTO mascota, Long duenoId, Long razaId);
+    List<MascotaLoteResultadoDTO> saveMascotas(List<MascotaDTO> mascotas);
     MascotaDTO updateMascota(Long id, MascotaDTO mascota, Long duenoId, Long razaId);
     void deleteMascota(Long id);
     List<MascotaDTO> findMascotasByNombre(String nombre);
@@ -1,31 +1,75 @@
 package microvetcare.microvetcare.mascota.service;
 
 import java.time.LocalDate;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import jakarta.persistence.EntityManager;
 import microvetcare.microvetcare.dueno.entity.Dueno;
 import microvetcare.microvetcare.dueno.repository.DuenoRepository;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
 import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaLoteResultadoDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaPageDTO;
 import microvetcare.microvetcare.mascota.entity.Mascota;
 import microvetcare.microvetcare.mascota.repository.MascotaRepository;
+import microvetcare.microvetcare.raza.DTO.RazaDTO;
 import microvetcare.microvetcare.raza.entity.Raza;
 import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
 
 @Service
 public class MascotaServiceImpl implements MascotaService {
 
+    static final int MAX_PAGE_SIZE = 500;
+    // Cada cuántas filas se vacía el contexto de persistencia durante el streaming
+    static final int STREAM_CLEAR_INTERVAL = MascotaRepository.STREAM_FETCH_SIZE;
+    // Tope por solicitud de carga masiva: mantiene la consulta IN de dueños bajo el límite de 1000 de Oracle
+    static final int MAX_BULK_SIZE = 500;
+    // Igual a hibernate.jdbc.batch_size: cada bloque sale en un solo lote de INSERT
+    static final int BULK_CHUNK_SIZE = 50;
+
     private final MascotaRepository mascotaRepository;
     private final DuenoRepository duenoRepository;
     private final RazaRepository razaRepository;
+    private final RazaCatalogo razaCatalogo;
+    private final EntityManager entityManager;
 
-    public MascotaServiceImpl(MascotaRepository mascotaRepository, DuenoRepository duenoRepository, RazaRepository razaRepository) {
+    public MascotaServiceImpl(MascotaRepository mascotaRepository, DuenoRepository duenoRepository, RazaRepository razaRepository,
+                              RazaCatalogo razaCatalogo, EntityManager entityManager) {
         this.mascotaRepository = mascotaRepository;
         this.duenoRepository = duenoRepository;
         this.razaRepository = razaRepository;
+        this.razaCatalogo = razaCatalogo;
+        this.entityManager = entityManager;
+    }
+
+    // La raza se valida contra el catálogo en memoria y se asigna como referencia perezosa:
+    // el INSERT/UPDATE solo necesita su ID, así que no se hace un SELECT de la raza
+    private Raza referenciaRaza(Long razaId) {
+        if (!razaCatalogo.existe(razaId)) {
+            throw new ResourceNotFoundException("Raza no encontrada con ID: " + razaId);
+        }
+        return razaRepository.getReferenceById(razaId);
+    }
+
+    // El nombre sale del catálogo para no inicializar la referencia perezosa a la raza
+    private String nombreRaza(Raza raza) {
+        return razaCatalogo.enCache(raza.getId()).map(RazaDTO::getNombre).orElseGet(raza::getNombre);
     }
 
     private Mascota convertirDTOaEntidad(MascotaDTO mascotaDTO, Long duenoId, Long razaId) {
@@ -44,14 +88,13 @@ public class MascotaServiceImpl implements MascotaService {
                 .orElseThrow(() -> new ResourceNotFoundException("Dueño no encontrado con ID: " + duenoId));
         mascota.setDueno(dueno);
 
-        Raza raza = razaRepository.findById(razaId)
-                .orElseThrow(() -> new ResourceNotFoundException("Raza no encontrada con ID: " + razaId));
-        mascota.setRaza(raza);
+        mascota.setRaza(referenciaRaza(razaId));
 
         return mascota;
     }
 
-    private MascotaDTO convertirEntidadADTO(Mascota mascota) {
+    // Visible en el paquete para MapeoDTOBenchmark (src/jmh/java)
+    MascotaDTO convertirEntidadADTO(Mascota mascota) {
         MascotaDTO mascotaDTO = new MascotaDTO();
         mascotaDTO.setId(mascota.getId());
         mascotaDTO.setNombre(mascota.getNombre());
@@ -71,7 +114,7 @@ public class MascotaServiceImpl implements MascotaService {
         if (mascota.getRaza() != null) {
             mascotaDTO.setIdRaza(mascota.getRaza().getId());
             // --- AÑADIDO: Nombre de la raza ---
-            mascotaDTO.setNombreRaza(mascota.getRaza().getNombre()); // Asumiendo que Raza tiene getNombre()
+            mascotaDTO.setNombreRaza(nombreRaza(mascota.getRaza()));
         } else {
             mascotaDTO.setNombreRaza("N/A"); // Fallback por si acaso, aunque JoinColumn es nullable=false
         }
@@ -82,9 +125,40 @@ public class MascotaServiceImpl implements MascotaService {
     @Override
     @Transactional(readOnly = true)
     public List<MascotaDTO> findAllMascotas() {
-        // --- CAMBIADO: Usar el método con JOIN FETCH ---
-        List<Mascota> mascotas = mascotaRepository.findAllWithDuenoAndRaza();
-        return mascotas.stream().map(this::convertirEntidadADTO).toList();
+        return mascotaRepository.findAllDTO();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MascotaPageDTO findMascotasPage(Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El parámetro limit debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        Long cursor = after != null ? after : 0L;
+        // Se pide una fila extra para saber si existe una página siguiente sin hacer un COUNT
+        List<MascotaDTO> mascotas = mascotaRepository.findDTOPage(cursor, Limit.of(limit + 1));
+        boolean hayMas = mascotas.size() > limit;
+        List<MascotaDTO> content = hayMas ? mascotas.subList(0, limit) : mascotas;
+        Long nextCursor = hayMas ? content.get(content.size() - 1).getId() : null;
+        return new MascotaPageDTO(content, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllMascotas(Consumer<MascotaDTO> consumer) {
+        try (Stream<Mascota> mascotas = mascotaRepository.streamAllWithDuenoAndRaza()) {
+            Iterator<Mascota> iterator = mascotas.iterator();
+            int procesadas = 0;
+            while (iterator.hasNext()) {
+                Mascota mascota = iterator.next();
+                consumer.accept(convertirEntidadADTO(mascota));
+                entityManager.detach(mascota);
+                // Dueños y razas se comparten entre filas, así que se liberan por bloques
+                if (++procesadas % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
     }
 
     @Override
@@ -104,6 +178,106 @@ public class MascotaServiceImpl implements MascotaService {
         return convertirEntidadADTO(mascota);
     }
 
+    @Override
+    @Transactional
+    public List<MascotaLoteResultadoDTO> saveMascotas(List<MascotaDTO> mascotas) {
+        if (mascotas == null || mascotas.isEmpty()) {
+            throw new IllegalArgumentException("La lista de mascotas no puede estar vacía");
+        }
+        if (mascotas.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("No se pueden crear más de " + MAX_BULK_SIZE + " mascotas por solicitud");
+        }
+
+        // Todos los dueños referenciados en una sola consulta IN; las razas salen del catálogo
+        Set<Long> duenoIds = mascotas.stream().filter(Objects::nonNull).map(MascotaDTO::getIdDueno)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Dueno> duenos = duenoRepository.findAllById(duenoIds).stream()
+                .collect(Collectors.toMap(Dueno::getId, Function.identity()));
+        Set<Long> razaIds = mascotas.stream().filter(Objects::nonNull).map(MascotaDTO::getIdRaza)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, String> razas = nombresDeRazas(razaIds);
+
+        MascotaLoteResultadoDTO[] resultados = new MascotaLoteResultadoDTO[mascotas.size()];
+        List<Integer> validas = new ArrayList<>();
+        for (int i = 0; i < mascotas.size(); i++) {
+            String error = validarParaLote(mascotas.get(i), duenos, razas);
+            if (error != null) {
+                resultados[i] = MascotaLoteResultadoDTO.rechazada(i, error);
+            } else {
+                validas.add(i);
+            }
+        }
+
+        for (int desde = 0; desde < validas.size(); desde += BULK_CHUNK_SIZE) {
+            List<Integer> bloque = validas.subList(desde, Math.min(desde + BULK_CHUNK_SIZE, validas.size()));
+            List<Mascota> entidades = new ArrayList<>(bloque.size());
+            for (int i : bloque) {
+                MascotaDTO dto = mascotas.get(i);
+                // Referencias sin SELECT: dueño y raza ya se validaron arriba
+                entidades.add(new Mascota(null, dto.getNombre(), dto.getFechaNacimiento(), dto.getEstado(), dto.getChip(),
+                        dto.getGenero(), duenoRepository.getReferenceById(dto.getIdDueno()),
+                        razaRepository.getReferenceById(dto.getIdRaza())));
+            }
+            mascotaRepository.saveAll(entidades);
+            entityManager.flush();
+            // Libera el contexto de persistencia para que no crezca con cada bloque
+            entityManager.clear();
+
+            for (int j = 0; j < bloque.size(); j++) {
+                int i = bloque.get(j);
+                MascotaDTO dto = mascotas.get(i);
+                Mascota guardada = entidades.get(j);
+                Dueno dueno = duenos.get(dto.getIdDueno());
+                resultados[i] = MascotaLoteResultadoDTO.creada(i, new MascotaDTO(guardada.getId(), guardada.getNombre(),
+                        guardada.getChip(), guardada.getGenero(), guardada.getEstado(), guardada.getFechaNacimiento(),
+                        dueno.getId(), dto.getIdRaza(), dueno.getNombre() + " " + dueno.getApellido(), razas.get(dto.getIdRaza())));
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private Map<Long, String> nombresDeRazas(Set<Long> razaIds) {
+        Map<Long, String> nombres = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long razaId : razaIds) {
+            razaCatalogo.enCache(razaId).ifPresentOrElse(raza -> nombres.put(razaId, raza.getNombre()), () -> faltantes.add(razaId));
+        }
+        if (!faltantes.isEmpty()) {
+            razaRepository.findAllById(faltantes).forEach(raza -> nombres.put(raza.getId(), raza.getNombre()));
+        }
+        return nombres;
+    }
+
+    // Mismas restricciones que las columnas de la tabla mascota, para que un elemento inválido
+    // se rechace aquí y no haga fallar el lote completo en la base de datos
+    private String validarParaLote(MascotaDTO dto, Map<Long, Dueno> duenos, Map<Long, String> razas) {
+        if (dto == null) {
+            return "La mascota no puede ser nula";
+        }
+        if (dto.getNombre() == null || dto.getNombre().isBlank() || dto.getNombre().length() > 100) {
+            return "El nombre es obligatorio y no puede superar 100 caracteres";
+        }
+        if (dto.getChip() == null || dto.getChip().isBlank() || dto.getChip().length() > 30) {
+            return "El chip es obligatorio y no puede superar 30 caracteres";
+        }
+        if (dto.getGenero() == null || dto.getGenero().isBlank() || dto.getGenero().length() > 15) {
+            return "El género es obligatorio y no puede superar 15 caracteres";
+        }
+        if (dto.getFechaNacimiento() == null) {
+            return "La fecha de nacimiento es obligatoria";
+        }
+        if (dto.getEstado() == null) {
+            return "El estado es obligatorio";
+        }
+        if (dto.getIdDueno() == null || !duenos.containsKey(dto.getIdDueno())) {
+            return "Dueño no encontrado con ID: " + dto.getIdDueno();
+        }
+        if (dto.getIdRaza() == null || !razas.containsKey(dto.getIdRaza())) {
+            return "Raza no encontrada con ID: " + dto.getIdRaza();
+        }
+        return null;
+    }
+
     @Override
     @Transactional
     public MascotaDTO updateMascota(Long id, MascotaDTO mascotaDTO, Long duenoId, Long razaId) {
@@ -119,9 +293,7 @@ public class MascotaServiceImpl implements MascotaService {
                 .orElseThrow(() -> new ResourceNotFoundException("Dueño no encontrado con ID: " + duenoId));
         existingMascota.setDueno(dueno);
 
-        Raza raza = razaRepository.findById(razaId)
-                .orElseThrow(() -> new ResourceNotFoundException("Raza no encontrada con ID: " + razaId));
-        existingMascota.setRaza(raza);
+        existingMascota.setRaza(referenciaRaza(razaId));
 
         existingMascota = mascotaRepository.save(existingMascota);
 
@@ -140,9 +312,7 @@ public class MascotaServiceImpl implements MascotaService {
     @Override
     @Transactional(readOnly = true)
     public List<MascotaDTO> findMascotasByNombre(String nombre) {
-        // Considera si también quieres JOIN FETCH aquí para rendimiento
-        List<Mascota> mascotas = mascotaRepository.findByNombre(nombre);
-        return mascotas.stream().map(this::convertirEntidadADTO).toList();
+        return mascotaRepository.findDTOByNombre(nombre);
     }
 
     @Override
@@ -151,44 +321,34 @@ public class MascotaServiceImpl implements MascotaService {
         if (!duenoRepository.existsById(duenoId)) {
             throw new ResourceNotFoundException("Dueño no encontrado con ID: " + duenoId);
         }
-        // Considera si también quieres JOIN FETCH aquí para rendimiento
-        List<Mascota> mascotas = mascotaRepository.findByDuenoId(duenoId);
-        return mascotas.stream().map(this::convertirEntidadADTO).toList();
+        return mascotaRepository.findDTOByDuenoId(duenoId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MascotaDTO> findMascotasByRazaId(Long razaId) {
-        if (!razaRepository.existsById(razaId)) {
+        if (!razaCatalogo.existe(razaId)) {
             throw new ResourceNotFoundException("Raza no encontrada con ID: " + razaId);
         }
-        // Considera si también quieres JOIN FETCH aquí para rendimiento
-        List<Mascota> mascotas = mascotaRepository.findByRazaId(razaId);
-        return mascotas.stream().map(this::convertirEntidadADTO).toList();
+        return mascotaRepository.findDTOByRazaId(razaId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MascotaDTO> findMascotasByGenero(String genero) {
-        // Considera si también quieres JOIN FETCH aquí para rendimiento
-        List<Mascota> mascotas = mascotaRepository.findByGenero(genero);
-        return mascotas.stream().map(this::convertirEntidadADTO).toList();
+        return mascotaRepository.findDTOByGenero(genero);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MascotaDTO> findMascotasBornAfter(LocalDate date) {
-        // Considera si también quieres JOIN FETCH aquí para rendimiento
-        List<Mascota> mascotas = mascotaRepository.findByFechaNacimientoAfter(date);
-        return mascotas.stream().map(this::convertirEntidadADTO).toList();
+        return mascotaRepository.findDTOByFechaNacimientoAfter(date);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MascotaDTO> findMascotasBornBefore(LocalDate date) {
-        // Considera si también quieres JOIN FETCH aquí para rendimiento
-        List<Mascota> mascotas = mascotaRepository.findByFechaNacimientoBefore(date);
-        return mascotas.stream().map(this::convertirEntidadADTO).toList();
+        return mascotaRepository.findDTOByFechaNacimientoBefore(date);
     }
 }
 
@@ -0,0 +1,47 @@
+package microvetcare.microvetcare.observabilidad;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Asigna a cada petición un id de correlación y lo deja en el MDC, así todas las líneas de log
+ * de la petición (incluidas las SQL) salen con el mismo correlationId en el JSON.
+ * Respeta el X-Correlation-Id que mande el cliente si es válido; si no, genera uno.
+ * Va primero en la cadena para que también lo tengan los 401 y los 503 del límite de concurrencia.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelacionFilter extends OncePerRequestFilter {
+
+    public static final String ENCABEZADO = "X-Correlation-Id";
+    public static final String CLAVE_MDC = "correlationId";
+
+    // Evita que un encabezado arbitrario termine tal cual en los logs
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String recibido = request.getHeader(ENCABEZADO);
+        String id = recibido != null && ID_VALIDO.matcher(recibido).matches() ? recibido : UUID.randomUUID().toString();
+        MDC.put(CLAVE_MDC, id);
+        response.setHeader(ENCABEZADO, id);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(CLAVE_MDC);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package microvetcare.microvetcare.observabilidad;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Envuelve el DataSource (Hikari) con datasource-proxy para contar sentencias y tiempo de base de datos
+ * por petición y detectar consultas lentas, sin depender del log de SQL de Hibernate.
+ * El proxy delega unwrap() al pool, así que las métricas hikaricp.* siguen registrándose.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "sql.inspector.habilitado", havingValue = "true", matchIfMissing = true)
+public class InspectorSqlConfig {
+
+    @Bean
+    public InspectorSqlListener inspectorSqlListener(@Value("${sql.inspector.umbral-lenta:PT0.5S}") Duration umbralLenta,
+                                                     ObjectProvider<MeterRegistry> registry) {
+        return new InspectorSqlListener(umbralLenta.toMillis(), registry);
+    }
+
+    // static: un BeanPostProcessor se crea antes que el resto de los beans de la configuración
+    @Bean
+    public static BeanPostProcessor inspectorSqlDataSourcePostProcessor(ObjectProvider<InspectorSqlListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package microvetcare.microvetcare.observabilidad;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Escucha cada ejecución JDBC a través de datasource-proxy: la suma a la petición en curso
+ * y registra en WARN las que superan el umbral de consulta lenta.
+ *
+ * Cada execute/executeBatch cuenta como una sentencia (un round-trip), aunque el lote lleve varias filas.
+ * El SQL se registra sin valores: Hibernate usa parámetros "?" y los literales de texto se reemplazan,
+ * así no llegan RUT, emails ni nombres al log.
+ */
+public class InspectorSqlListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(InspectorSqlListener.class);
+    private static final Pattern LITERAL_TEXTO = Pattern.compile("'(?:[^']|'')*'");
+
+    // Solo lo usa el hilo que ejecuta la sentencia, entre beforeQuery y afterQuery
+    private final ThreadLocal<long[]> inicio = ThreadLocal.withInitial(() -> new long[1]);
+    private final long umbralLentaNanos;
+    // El DataSource se envuelve antes de que exista el MeterRegistry, por eso se resuelve al primer uso
+    private final ObjectProvider<MeterRegistry> registry;
+    private volatile Counter lentas;
+
+    public InspectorSqlListener(long umbralLentaMillis, ObjectProvider<MeterRegistry> registry) {
+        this.umbralLentaNanos = TimeUnit.MILLISECONDS.toNanos(umbralLentaMillis);
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        inicio.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = System.nanoTime() - inicio.get()[0];
+        SentenciasPeticion peticion = SentenciasPeticion.actual();
+        if (peticion != null) {
+            peticion.registrar(nanos);
+        }
+        if (nanos >= umbralLentaNanos) {
+            contadorLentas().increment();
+            log.warn("Consulta lenta: {} ms{}: {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                    execInfo.isBatch() ? " (lote de " + execInfo.getBatchSize() + ")" : "",
+                    redactar(queryInfoList));
+        }
+    }
+
+    /** SQL de las sentencias con los literales de texto reemplazados por '?'. */
+    public static String redactar(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(q -> LITERAL_TEXTO.matcher(q.getQuery()).replaceAll("'?'"))
+                .collect(Collectors.joining("; "));
+    }
+
+    private Counter contadorLentas() {
+        Counter contador = lentas;
+        if (contador == null) {
+            contador = Counter.builder("sql.consultas.lentas")
+                    .description("Sentencias SQL que superaron sql.inspector.umbral-lenta")
+                    .register(registry.getObject());
+            lentas = contador;
+        }
+        return contador;
+    }
+}
@@ -0,0 +1,34 @@
+package microvetcare.microvetcare.observabilidad;
+
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.Tags;
+
+@Configuration
+public class MetricasConfig {
+
+    private static final String PAQUETE_BASE = "microvetcare.microvetcare.";
+
+    // Mismas etiquetas de Spring Boot (repository, method, state, exception) más el dominio,
+    // para cruzar spring.data.repository.invocations con servicio.invocaciones
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        DefaultRepositoryTagsProvider porDefecto = new DefaultRepositoryTagsProvider();
+        return invocation -> Tags.of(porDefecto.repositoryTags(invocation))
+                .and("dominio", dominio(invocation.getRepositoryInterface()));
+    }
+
+    /** Primer paquete bajo microvetcare.microvetcare: "dueno" para dueno.service.DuenoServiceImpl. */
+    static String dominio(Class<?> clase) {
+        String paquete = clase.getPackageName();
+        if (!paquete.startsWith(PAQUETE_BASE)) {
+            return "otro";
+        }
+        String resto = paquete.substring(PAQUETE_BASE.length());
+        int punto = resto.indexOf('.');
+        return punto < 0 ? resto : resto.substring(0, punto);
+    }
+}
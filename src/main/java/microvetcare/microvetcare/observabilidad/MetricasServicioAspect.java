@@ -0,0 +1,64 @@
+package microvetcare.microvetcare.observabilidad;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mide cada método público de los *ServiceImpl con el timer servicio.invocaciones, etiquetado por
+ * dominio (dueno, mascota, raza, especie), operacion (nombre del método) y excepcion ("none" si terminó bien).
+ * Junto a spring.data.repository.invocations permite separar el tiempo de Oracle del resto del servicio.
+ *
+ * Se ordena antes que el proxy de @Transactional para que el tiempo incluya abrir la transacción
+ * (esperar conexión del pool) y el commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasServicioAspect {
+
+    static final String METRICA = "servicio.invocaciones";
+    private static final String SIN_EXCEPCION = "none";
+
+    private final MeterRegistry registry;
+    // Registrar el timer en cada llamada obliga a armar su Meter.Id; con esto se arma una vez por método
+    private final ConcurrentMap<Method, Timer> exitosas = new ConcurrentHashMap<>();
+
+    public MetricasServicioAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * microvetcare.microvetcare..service.*ServiceImpl.*(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer.Sample muestra = Timer.start(registry);
+        try {
+            Object resultado = joinPoint.proceed();
+            muestra.stop(exitosas.computeIfAbsent(metodo, m -> timer(m, SIN_EXCEPCION)));
+            return resultado;
+        } catch (Throwable e) {
+            muestra.stop(timer(metodo, e.getClass().getSimpleName()));
+            throw e;
+        }
+    }
+
+    private Timer timer(Method metodo, String excepcion) {
+        return Timer.builder(METRICA)
+                .description("Duración de los métodos de servicio")
+                .tag("dominio", MetricasConfig.dominio(metodo.getDeclaringClass()))
+                .tag("operacion", metodo.getName())
+                .tag("excepcion", excepcion)
+                .register(registry);
+    }
+}
@@ -0,0 +1,57 @@
+package microvetcare.microvetcare.observabilidad;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Deja pasar los logs DEBUG/TRACE (p. ej. org.hibernate.SQL) solo en una fracción de las peticiones,
+ * para poder dejarlos activos en producción. INFO y superiores no se tocan.
+ *
+ * La decisión sale del hash del correlationId del MDC: una petición muestreada trae todas sus líneas
+ * DEBUG y una no muestreada ninguna, sin guardar estado. Fuera de una petición se decide por evento.
+ * Se configura en logback-spring.xml con la propiedad logging.muestreo.tasa (0 a 1).
+ */
+public class MuestreoDebugTurboFilter extends TurboFilter {
+
+    private static final int ESCALA = 1 << 16;
+
+    private double tasa = 1.0;
+    private int umbral = ESCALA;
+
+    public void setTasa(double tasa) {
+        if (tasa < 0 || tasa > 1) {
+            throw new IllegalArgumentException("logging.muestreo.tasa debe estar entre 0 y 1: " + tasa);
+        }
+        this.tasa = tasa;
+        this.umbral = (int) Math.round(tasa * ESCALA);
+    }
+
+    public double getTasa() {
+        return tasa;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Se llama en cada log e isXEnabled(): lo que no es DEBUG/TRACE sale de inmediato
+        if (level == null || level.isGreaterOrEqual(Level.INFO) || umbral >= ESCALA) {
+            return FilterReply.NEUTRAL;
+        }
+        return muestreado(MDC.get(CorrelacionFilter.CLAVE_MDC)) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    boolean muestreado(String correlationId) {
+        if (correlationId == null) {
+            return ThreadLocalRandom.current().nextInt(ESCALA) < umbral;
+        }
+        // hashCode de String queda cacheado, y el mezclado reparte bien ids secuenciales
+        int h = correlationId.hashCode() * 0x9E3779B9;
+        return (h >>> 16) < umbral;
+    }
+}
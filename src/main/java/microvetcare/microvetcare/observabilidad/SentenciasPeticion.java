@@ -0,0 +1,43 @@
+package microvetcare.microvetcare.observabilidad;
+
+/**
+ * Sentencias SQL y tiempo de base de datos acumulados por la petición HTTP en curso.
+ * Lo abre y cierra SentenciasPorPeticionFilter; InspectorSqlListener suma cada ejecución del mismo hilo.
+ */
+public final class SentenciasPeticion {
+
+    private static final ThreadLocal<SentenciasPeticion> ACTUAL = new ThreadLocal<>();
+
+    private int sentencias;
+    private long nanos;
+
+    private SentenciasPeticion() {}
+
+    static SentenciasPeticion iniciar() {
+        SentenciasPeticion peticion = new SentenciasPeticion();
+        ACTUAL.set(peticion);
+        return peticion;
+    }
+
+    static void terminar() {
+        ACTUAL.remove();
+    }
+
+    /** null fuera de una petición (tareas programadas, arranque). */
+    static SentenciasPeticion actual() {
+        return ACTUAL.get();
+    }
+
+    void registrar(long nanosSentencia) {
+        sentencias++;
+        nanos += nanosSentencia;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
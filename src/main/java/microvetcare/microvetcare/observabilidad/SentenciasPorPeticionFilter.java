@@ -0,0 +1,94 @@
+package microvetcare.microvetcare.observabilidad;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Al terminar cada petición /api/** publica cuántas sentencias SQL ejecutó y cuánto tiempo pasó en la
+ * base de datos, por endpoint. Si supera el presupuesto de sentencias (sql.presupuesto.sentencias, o el
+ * de sql.presupuesto.por-endpoint) lo registra en WARN: es la señal de un N+1 en producción.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "sql.inspector.habilitado", havingValue = "true", matchIfMissing = true)
+public class SentenciasPorPeticionFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SentenciasPorPeticionFilter.class);
+
+    private final MeterRegistry registry;
+    private final int presupuesto;
+    private final Map<String, Integer> presupuestoPorEndpoint;
+
+    public SentenciasPorPeticionFilter(MeterRegistry registry,
+                                       @Value("${sql.presupuesto.sentencias:20}") int presupuesto,
+                                       @Value("#{${sql.presupuesto.por-endpoint:{:}}}") Map<String, Integer> presupuestoPorEndpoint) {
+        this.registry = registry;
+        this.presupuesto = presupuesto;
+        this.presupuestoPorEndpoint = presupuestoPorEndpoint;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SentenciasPeticion peticion = SentenciasPeticion.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SentenciasPeticion.terminar();
+            publicar(request, peticion);
+        }
+    }
+
+    private void publicar(HttpServletRequest request, SentenciasPeticion peticion) {
+        // El patrón (/api/mascotas/{id}) y no la URI, para no crear una serie por cada ID
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (patron != null ? patron : "UNKNOWN");
+
+        DistributionSummary.builder("sql.peticion.sentencias")
+                .description("Sentencias SQL ejecutadas por petición")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(peticion.getSentencias());
+        Timer.builder("sql.peticion.tiempo")
+                .description("Tiempo acumulado en la base de datos por petición")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(peticion.getNanos(), TimeUnit.NANOSECONDS);
+
+        int limite = presupuestoPorEndpoint.getOrDefault(endpoint, presupuesto);
+        if (limite > 0 && peticion.getSentencias() > limite) {
+            Counter.builder("sql.presupuesto.excedido")
+                    .description("Peticiones que ejecutaron más sentencias SQL que su presupuesto")
+                    .tag("endpoint", endpoint)
+                    .register(registry)
+                    .increment();
+            log.warn("{} ejecutó {} sentencias SQL (presupuesto {}) en {} ms de base de datos", endpoint,
+                    peticion.getSentencias(), limite, TimeUnit.NANOSECONDS.toMillis(peticion.getNanos()));
+        }
+    }
+}
@@ -2,7 +2,6 @@ package microvetcare.microvetcare.raza.controller;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,7 +28,6 @@ public class RazaController {
     }
 
    @GetMapping
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<List<RazaDTO>> getAllRazas(
         @RequestHeader(value = "Authorization", required = false) String authorizationHeader 
     ) {
@@ -38,7 +36,6 @@ public class RazaController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<RazaDTO> getRazaById(@PathVariable Long id) {
         RazaDTO razaDTO = razaService.findRazaById(id)
                                     .orElseThrow(() -> new ResourceNotFoundException("Raza no encontrada con ID: " + id));
@@ -46,7 +43,6 @@ public class RazaController {
     }
 
     @GetMapping("/nombre/{nombre}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<RazaDTO> getRazaByNombre(@PathVariable String nombre) {
         RazaDTO razaDTO = razaService.findRazaByNombre(nombre)
                                     .orElseThrow(() -> new ResourceNotFoundException("Raza no encontrada con nombre: " + nombre));
@@ -62,7 +58,6 @@ public class RazaController {
      * @return ResponseEntity con la raza creada y estado 201 Created
      */
     @PostMapping("/create")
-    @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<RazaDTO> createRaza(@RequestBody RazaDTO razaDTO, @RequestParam(required = false) Long especieId) {
         if (especieId == null) {
             throw new IllegalArgumentException("Debe proporcionar especieId en la URL");
@@ -82,7 +77,6 @@ public class RazaController {
      * @return ResponseEntity con la raza actualizada y estado 200 OK
      */
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<RazaDTO> updateRaza(@PathVariable Long id, @RequestBody RazaDTO razaDTO,
                                             @RequestParam(required = false) Long especieId) {
         RazaDTO updatedRazaDTO = razaService.updateRaza(id, razaDTO); // Ahora pasa el RazaDTO directamente al servicio
@@ -91,7 +85,6 @@ public class RazaController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<Void> deleteRaza(@PathVariable Long id) {
         razaService.deleteRaza(id);
         return ResponseEntity.noContent().build();
@@ -104,7 +97,6 @@ public class RazaController {
      * @return ResponseEntity con la lista de razas encontradas y estado 200 OK
      */
     @GetMapping("/especie/{especieId}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'VETERINARIO', 'ASISTENTE')")
     public ResponseEntity<List<RazaDTO>> getRazasByEspecieId(@PathVariable Long especieId) {
         List<RazaDTO> razasDTO = razaService.findRazasByEspecieId(especieId); // Cambiar de List<Raza> a List<RazaDTO>
         return ResponseEntity.ok(razasDTO);
@@ -5,6 +5,9 @@ import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -15,15 +18,20 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.SequenceGenerator;
 import microvetcare.microvetcare.especie.entity.Especie;
 import microvetcare.microvetcare.mascota.entity.Mascota;
 
 @Entity
 @Table(name = "raza") 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "raza")
 public class Raza {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_raza")
+    @SequenceGenerator(name = "seq_raza", sequenceName = "seq_raza", allocationSize = 50)
     @Column(name = "id_raza")
     private Long id;
 
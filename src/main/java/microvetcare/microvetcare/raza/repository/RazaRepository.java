@@ -1,6 +1,10 @@
 package microvetcare.microvetcare.raza.repository;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
 
 import microvetcare.microvetcare.especie.entity.Especie;
 import microvetcare.microvetcare.raza.entity.Raza;
@@ -8,6 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 public interface RazaRepository extends JpaRepository<Raza, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Raza> findByNombre(String nombre);
     boolean existsByNombre(String nombre);
     List<Raza> findByEspecie(Especie especie);
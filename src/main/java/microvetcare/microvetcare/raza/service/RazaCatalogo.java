@@ -0,0 +1,53 @@
+package microvetcare.microvetcare.raza.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import microvetcare.microvetcare.cache.CatalogoCache;
+import microvetcare.microvetcare.raza.DTO.RazaDTO;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+
+/**
+ * Catálogo de razas en memoria. Lo usan RazaServiceImpl para las lecturas y
+ * MascotaServiceImpl para validar la raza al crear o actualizar mascotas.
+ */
+@Component
+public class RazaCatalogo extends CatalogoCache<RazaDTO> {
+
+    private final RazaRepository razaRepository;
+
+    public RazaCatalogo(RazaRepository razaRepository, MeterRegistry registry) {
+        super("raza", RazaDTO::getId, RazaDTO::getNombre, registry);
+        this.razaRepository = razaRepository;
+    }
+
+    public List<RazaDTO> buscarPorEspecieId(Long especieId) {
+        return fotoActual()
+                .map(razas -> razas.stream().filter(r -> Objects.equals(r.getEspecieId(), especieId)).toList())
+                .orElseGet(() -> razaRepository.findByEspecieId(especieId).stream().map(RazaDTO::new).toList());
+    }
+
+    // Borrar una especie borra sus razas en cascada (orphanRemoval en Especie.razas)
+    public void especieEliminada(Long especieId) {
+        alConfirmar(porId -> porId.values().removeIf(r -> Objects.equals(r.getEspecieId(), especieId)));
+    }
+
+    @Override
+    protected List<RazaDTO> cargarDesdeBaseDeDatos() {
+        return razaRepository.findAll().stream().map(RazaDTO::new).toList();
+    }
+
+    @Override
+    protected Optional<RazaDTO> buscarEnBaseDeDatos(Long id) {
+        return razaRepository.findById(id).map(RazaDTO::new);
+    }
+
+    @Override
+    protected Optional<RazaDTO> buscarEnBaseDeDatosPorNombre(String nombre) {
+        return razaRepository.findByNombre(nombre).map(RazaDTO::new);
+    }
+}
@@ -9,34 +9,30 @@ import microvetcare.microvetcare.raza.repository.RazaRepository;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class RazaServiceImpl implements RazaService {
 
     private final RazaRepository razaRepository;
     private final EspecieRepository especieRepository;
+    private final RazaCatalogo razaCatalogo;
 
-    public RazaServiceImpl(RazaRepository razaRepository, EspecieRepository especieRepository) {
+    public RazaServiceImpl(RazaRepository razaRepository, EspecieRepository especieRepository, RazaCatalogo razaCatalogo) {
         this.razaRepository = razaRepository;
         this.especieRepository = especieRepository;
+        this.razaCatalogo = razaCatalogo;
     }
 
-    
+    // Las lecturas salen del catálogo en memoria y no abren transacción: una transacción
+    // readOnly toma una conexión del pool aunque la caché responda sin ir a la base de datos
     @Override
-    @Transactional(readOnly = true)
     public List<RazaDTO> findAllRazas() {
-        List<Raza> razas = razaRepository.findAll();
-        return razas.stream()
-                    .map(RazaDTO::new) 
-                    .collect(Collectors.toList());
+        return razaCatalogo.todos();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<RazaDTO> findRazaById(Long id) {
-        Optional<Raza> raza = razaRepository.findById(id);
-        return raza.map(RazaDTO::new);
+        return razaCatalogo.buscarPorId(id);
     }
 
     @Override
@@ -52,7 +48,9 @@ public class RazaServiceImpl implements RazaService {
         }
         Raza savedRaza = razaRepository.save(raza);
 
-        return new RazaDTO(savedRaza);
+        RazaDTO savedRazaDTO = new RazaDTO(savedRaza);
+        razaCatalogo.guardado(savedRazaDTO);
+        return savedRazaDTO;
     }
 
     @Override
@@ -70,7 +68,9 @@ public class RazaServiceImpl implements RazaService {
 
         Raza updatedRaza = razaRepository.save(existingRaza);
 
-        return new RazaDTO(updatedRaza);
+        RazaDTO updatedRazaDTO = new RazaDTO(updatedRaza);
+        razaCatalogo.guardado(updatedRazaDTO);
+        return updatedRazaDTO;
     }
 
     @Override
@@ -81,23 +81,18 @@ public class RazaServiceImpl implements RazaService {
             throw new IllegalArgumentException("Raza no encontrada");
         }
         razaRepository.deleteById(id);
+        razaCatalogo.eliminado(id);
     }
     
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<RazaDTO> findRazaByNombre(String nombre) {
-        Optional<Raza> raza = razaRepository.findByNombre(nombre);
-        return raza.map(RazaDTO::new);
+        return razaCatalogo.buscarPorNombre(nombre);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<RazaDTO> findRazasByEspecieId(Long especieId) {
-        List<Raza> razas = razaRepository.findByEspecieId(especieId);
-        return razas.stream()
-                    .map(RazaDTO::new)
-                    .collect(Collectors.toList());
+        return razaCatalogo.buscarPorEspecieId(especieId);
     }
 
 }
@@ -0,0 +1,33 @@
+-- Migración de IDENTITY a secuencias para dueno, especie, raza y mascota.
+-- Ejecutar una sola vez (usuario DOGVET) antes de desplegar la versión que usa @SequenceGenerator.
+--
+-- Cada secuencia incrementa de a 50, igual que allocationSize en las entidades: con el optimizador
+-- pooled-lo el valor obtenido es el primer ID del bloque y Hibernate asigna los 49 siguientes en memoria.
+-- Así los INSERT se pueden agrupar en lotes JDBC, cosa que IDENTITY impide porque cada fila debe
+-- insertarse sola para conocer su ID.
+-- Las secuencias parten en MAX(id) + 1 para no chocar con las filas existentes.
+
+DECLARE
+    PROCEDURE crear_secuencia(p_tabla VARCHAR2, p_columna VARCHAR2, p_secuencia VARCHAR2) IS
+        v_inicio    NUMBER;
+        v_identidad NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(' || p_columna || '), 0) + 1 FROM ' || p_tabla INTO v_inicio;
+        EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_secuencia
+            || ' START WITH ' || v_inicio || ' INCREMENT BY 50 NOCYCLE';
+
+        -- Una columna GENERATED ALWAYS AS IDENTITY rechaza los IDs que envía Hibernate
+        SELECT COUNT(*) INTO v_identidad
+          FROM user_tab_identity_cols
+         WHERE table_name = UPPER(p_tabla) AND column_name = UPPER(p_columna);
+        IF v_identidad > 0 THEN
+            EXECUTE IMMEDIATE 'ALTER TABLE ' || p_tabla || ' MODIFY ' || p_columna || ' DROP IDENTITY';
+        END IF;
+    END;
+BEGIN
+    crear_secuencia('especie', 'id_especie', 'seq_especie');
+    crear_secuencia('raza', 'id_raza', 'seq_raza');
+    crear_secuencia('dueno', 'id_dueno', 'seq_dueno');
+    crear_secuencia('mascota', 'id_mascota', 'seq_mascota');
+END;
+/
@@ -0,0 +1,57 @@
+package microvetcare.microvetcare.controller;
+
+import microvetcare.microvetcare.config.AccesoManagementLocal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AccesoManagementLocalTest {
+
+    private static void iniciarServidor(AccesoManagementLocal acceso, String namespace, int puerto) {
+        ServletWebServerApplicationContext contexto = mock(ServletWebServerApplicationContext.class);
+        when(contexto.getServerNamespace()).thenReturn(namespace);
+        WebServer servidor = mock(WebServer.class);
+        when(servidor.getPort()).thenReturn(puerto);
+        acceso.onApplicationEvent(new ServletWebServerInitializedEvent(servidor, contexto));
+    }
+
+    private static MockHttpServletRequest peticion(int puertoLocal, String remoto) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.setLocalPort(puertoLocal);
+        request.setRemoteAddr(remoto);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Debería calzar solo en el puerto de management y desde localhost")
+    void matches_shouldRequireManagementPortAndLoopback() {
+        // Given
+        AccesoManagementLocal acceso = new AccesoManagementLocal();
+        iniciarServidor(acceso, null, 8094);
+        iniciarServidor(acceso, "management", 8095);
+
+        // When / Then
+        assertThat(acceso.matches(peticion(8095, "127.0.0.1"))).isTrue();
+        assertThat(acceso.matches(peticion(8095, "0:0:0:0:0:0:0:1"))).isTrue();
+        assertThat(acceso.matches(peticion(8094, "127.0.0.1"))).isFalse();
+        assertThat(acceso.matches(peticion(8095, "10.0.0.7"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Si management comparte el puerto de la API no debería calzar nunca")
+    void matches_shouldNeverMatch_whenManagementSharesApiPort() {
+        // Given: sin servidor de management propio solo se inicializa el de la API
+        AccesoManagementLocal acceso = new AccesoManagementLocal();
+        iniciarServidor(acceso, null, 8094);
+
+        // When / Then
+        assertThat(acceso.matches(peticion(8094, "127.0.0.1"))).isFalse();
+    }
+}
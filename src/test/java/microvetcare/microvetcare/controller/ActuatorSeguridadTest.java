@@ -0,0 +1,66 @@
+package microvetcare.microvetcare.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aplicación completa sobre H2 con management en un puerto aparte: health y prometheus deben
+ * responder sin JWT solo por ese puerto. Sin @AutoConfigureObservability el test no registraría Prometheus.
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:actuator-${random.uuid};MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=0"
+})
+public class ActuatorSeguridadTest {
+
+    @LocalServerPort
+    private int puertoApi;
+
+    @LocalManagementPort
+    private int puertoManagement;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    private int estado(int puerto, String ruta) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + puerto + ruta)).GET().build();
+        return cliente.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    @DisplayName("Prometheus y health deberían responder sin token por el puerto de management")
+    void actuator_shouldBeOpenOnManagementPort() throws Exception {
+        assertThat(puertoManagement).isNotEqualTo(puertoApi);
+        assertThat(estado(puertoManagement, "/actuator/prometheus")).isEqualTo(200);
+        assertThat(estado(puertoManagement, "/actuator/health")).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Por el puerto de la API, actuator y /api deberían exigir token")
+    void actuator_shouldRequireTokenOnApiPort() throws Exception {
+        assertThat(estado(puertoApi, "/actuator/prometheus")).isEqualTo(401);
+        assertThat(estado(puertoApi, "/api/mascotas")).isEqualTo(401);
+    }
+
+    @Test
+    @DisplayName("Los demás endpoints de management deberían seguir exigiendo token")
+    void actuator_shouldRequireTokenForMetrics() throws Exception {
+        assertThat(estado(puertoManagement, "/actuator/metrics")).isEqualTo(401);
+    }
+}
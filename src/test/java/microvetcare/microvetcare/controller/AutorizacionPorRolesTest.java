@@ -0,0 +1,123 @@
+package microvetcare.microvetcare.controller;
+
+import microvetcare.microvetcare.config.AutorizacionPorRoles;
+import microvetcare.microvetcare.config.SecurityConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * La tabla de SecurityConfig debe dar los mismos permisos que tenían los @PreAuthorize de los controladores.
+ */
+public class AutorizacionPorRolesTest {
+
+    private final AutorizacionPorRoles autorizacion = new SecurityConfig().autorizacionPorRoles();
+
+    private boolean permitido(String metodo, String uri, Authentication authentication) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, uri);
+        return autorizacion.check(() -> authentication, new RequestAuthorizationContext(request)).isGranted();
+    }
+
+    private static Authentication usuario(String... roles) {
+        return UsernamePasswordAuthenticationToken.authenticated("usuario", null,
+                AuthorityUtils.createAuthorityList(roles));
+    }
+
+    @ParameterizedTest(name = "{0} {1}: ADMIN={2}, VETERINARIO={3}, ASISTENTE={4}")
+    @CsvSource({
+            "GET,    /api/mascotas,                    true, true,  true",
+            "GET,    /api/mascotas/stream,             true, true,  true",
+            "GET,    /api/mascotas/nacidas-antes/2020-01-01, true, true, true",
+            "HEAD,   /api/mascotas/1,                  true, true,  true",
+            "POST,   /api/mascotas/create,             true, false, true",
+            "POST,   /api/mascotas/bulk,               true, false, true",
+            "PUT,    /api/mascotas/1,                  true, false, true",
+            "DELETE, /api/mascotas/1,                  true, false, false",
+            "GET,    /api/duenos/rut/12345678-9,       true, true,  true",
+            "POST,   /api/duenos/create,               true, false, true",
+            "POST,   /api/duenos/import,               true, false, true",
+            "PUT,    /api/duenos/1,                    true, false, false",
+            "DELETE, /api/duenos/1,                    true, false, false",
+            "GET,    /api/especies/nombre/Perro,       true, true,  true",
+            "POST,   /api/especies/create,             true, false, true",
+            "PUT,    /api/especies/1,                  true, false, true",
+            "DELETE, /api/especies/1,                  true, false, true",
+            "GET,    /api/razas/especie/1,             true, true,  true",
+            "POST,   /api/razas/create,                true, false, false",
+            "PUT,    /api/razas/1,                     true, false, false",
+            "DELETE, /api/razas/1,                     true, false, false"
+    })
+    @DisplayName("Debería permitir a cada rol lo mismo que los @PreAuthorize anteriores")
+    void check_shouldMatchPreviousAnnotations(String metodo, String uri, boolean admin, boolean veterinario, boolean asistente) {
+        assertThat(permitido(metodo, uri, usuario("ROLE_ADMIN"))).isEqualTo(admin);
+        assertThat(permitido(metodo, uri, usuario("ROLE_VETERINARIO"))).isEqualTo(veterinario);
+        assertThat(permitido(metodo, uri, usuario("ROLE_ASISTENTE"))).isEqualTo(asistente);
+    }
+
+    @Test
+    @DisplayName("Un usuario sin roles de la aplicación o anónimo no debería pasar")
+    void check_shouldDenyWithoutKnownRoles() {
+        assertThat(permitido("GET", "/api/mascotas", usuario("ROLE_OFFLINE_ACCESS"))).isFalse();
+        Authentication anonimo = new AnonymousAuthenticationToken("clave", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        assertThat(permitido("GET", "/api/mascotas", anonimo)).isFalse();
+        assertThat(permitido("PATCH", "/api/mascotas/1", anonimo)).isFalse();
+    }
+
+    @Test
+    @DisplayName("El prefijo no debería calzar con rutas que solo comparten el comienzo")
+    void check_shouldMatchWholeSegments() {
+        // /api/razasx no es /api/razas: no tiene regla y se rechaza
+        assertThat(autorizacion.mascaraRequerida(HttpMethod.DELETE, "/api/razasx")).isZero();
+        assertThat(permitido("DELETE", "/api/razasx", usuario("ROLE_VETERINARIO"))).isFalse();
+        assertThat(permitido("DELETE", "/api/razasx", usuario("ROLE_ADMIN"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Una ruta de /api sin regla debería rechazarse aunque el usuario tenga rol")
+    void check_shouldDenyApiPathsWithoutRule() {
+        assertThat(permitido("GET", "/api/otra", usuario("ROLE_ADMIN"))).isFalse();
+        assertThat(permitido("PATCH", "/api/mascotas/1", usuario("ROLE_ADMIN"))).isFalse();
+        assertThat(permitido("DELETE", "/api/mascotas/1", usuario("ROLE_OFFLINE_ACCESS"))).isFalse();
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @CsvSource({
+            "DELETE, /api/%6Dascotas/1",
+            "DELETE, /api/%6d%61scotas/1",
+            "DELETE, /api/duenos%2F1",
+            "PUT,    /api/%72azas/1",
+            "DELETE, /api/mascotas;x=1/1"
+    })
+    @DisplayName("Las rutas codificadas deberían evaluarse como la ruta decodificada que atiende Spring MVC")
+    void check_shouldDecodePathBeforeMatching(String metodo, String uri) {
+        assertThat(permitido(metodo, uri, usuario("ROLE_VETERINARIO"))).isFalse();
+        assertThat(permitido(metodo, uri, usuario("ROLE_ADMIN"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debería considerar el context path de la aplicación")
+    void check_shouldSkipContextPath() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/vetcare/api/duenos/1");
+        request.setContextPath("/vetcare");
+
+        // When
+        boolean asistente = autorizacion.check(() -> usuario("ROLE_ASISTENTE"), new RequestAuthorizationContext(request)).isGranted();
+        boolean admin = autorizacion.check(() -> usuario("ROLE_ADMIN"), new RequestAuthorizationContext(request)).isGranted();
+
+        // Then
+        assertThat(asistente).isFalse();
+        assertThat(admin).isTrue();
+    }
+}
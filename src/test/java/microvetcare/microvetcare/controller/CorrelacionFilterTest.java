@@ -0,0 +1,66 @@
+package microvetcare.microvetcare.controller;
+
+import microvetcare.microvetcare.observabilidad.CorrelacionFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CorrelacionFilterTest {
+
+    private final CorrelacionFilter filter = new CorrelacionFilter();
+
+    private String idDuranteLaPeticion(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> enMdc = new AtomicReference<>();
+        filter.doFilter(request, response, (req, res) -> enMdc.set(MDC.get(CorrelacionFilter.CLAVE_MDC)));
+        return enMdc.get();
+    }
+
+    @Test
+    @DisplayName("Debería generar un id, dejarlo en el MDC durante la petición y devolverlo en la respuesta")
+    void doFilter_shouldGenerateIdWhenMissing() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        String id = idDuranteLaPeticion(new MockHttpServletRequest("GET", "/api/mascotas"), response);
+
+        // Then
+        assertThat(id).isNotBlank();
+        assertThat(response.getHeader(CorrelacionFilter.ENCABEZADO)).isEqualTo(id);
+        assertThat(MDC.get(CorrelacionFilter.CLAVE_MDC)).isNull();
+    }
+
+    @Test
+    @DisplayName("Debería reutilizar el X-Correlation-Id válido del cliente")
+    void doFilter_shouldReuseValidClientId() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/mascotas");
+        request.addHeader(CorrelacionFilter.ENCABEZADO, "front-1234.abc");
+
+        // When
+        String id = idDuranteLaPeticion(request, new MockHttpServletResponse());
+
+        // Then
+        assertThat(id).isEqualTo("front-1234.abc");
+    }
+
+    @Test
+    @DisplayName("Debería descartar un X-Correlation-Id con caracteres no permitidos")
+    void doFilter_shouldReplaceInvalidClientId() throws Exception {
+        // Given: un salto de línea permitiría inyectar líneas falsas en el log
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/mascotas");
+        request.addHeader(CorrelacionFilter.ENCABEZADO, "abc\nlinea falsa");
+
+        // When
+        String id = idDuranteLaPeticion(request, new MockHttpServletResponse());
+
+        // Then
+        assertThat(id).isNotEqualTo("abc\nlinea falsa").matches("[0-9a-f-]{36}");
+    }
+}
@@ -2,7 +2,10 @@ package microvetcare.microvetcare.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import microvetcare.microvetcare.dueno.DTO.DuenoDTO;
+import microvetcare.microvetcare.dueno.DTO.DuenoFilaRechazadaDTO;
+import microvetcare.microvetcare.dueno.DTO.DuenoImportacionResultadoDTO;
 import microvetcare.microvetcare.dueno.controller.DuenoController;
+import microvetcare.microvetcare.dueno.service.DuenoImportacionService;
 import microvetcare.microvetcare.dueno.service.DuenoService;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,8 +16,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -27,7 +33,8 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(DuenoController.class)
+@WebMvcTest(controllers = DuenoController.class, properties = {
+        "concurrencia.limite.habilitado=false", "sql.inspector.habilitado=false"})
 @AutoConfigureMockMvc(addFilters = false)
 public class DuenoControllerTest {
 
@@ -37,6 +44,9 @@ public class DuenoControllerTest {
     @MockBean // Simula el servicio, ya que no queremos probar la lógica del servicio aquí
     private DuenoService duenoService;
 
+    @MockBean
+    private DuenoImportacionService duenoImportacionService;
+
     @Autowired
     private ObjectMapper objectMapper; // Para convertir objetos Java a JSON y viceversa
 
@@ -319,4 +329,44 @@ public class DuenoControllerTest {
 
         verify(duenoService, times(1)).findDuenoByEmail(nonExistentEmail);
     }
+
+    // --- Tests para importDuenos() ---
+    @Test
+    @DisplayName("POST /api/duenos/import debería retornar el resumen de la importación")
+    void importDuenos_shouldReturnSummary() throws Exception {
+        // Given
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "duenos.csv", "text/csv",
+                "rut,nombre,apellido\n11111111-1,Juan,Perez\nRUT-MALO,Ana,Rojas\n".getBytes(StandardCharsets.UTF_8));
+        DuenoImportacionResultadoDTO resultado = new DuenoImportacionResultadoDTO();
+        resultado.setFilasLeidas(2);
+        resultado.setCreados(1);
+        resultado.setRechazados(1);
+        resultado.setRechazos(List.of(new DuenoFilaRechazadaDTO(3, null, "El RUT no es válido")));
+        when(duenoImportacionService.importarCsv(any(InputStream.class))).thenReturn(resultado);
+
+        // When & Then
+        mockMvc.perform(multipart("/api/duenos/import").file(archivo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filasLeidas", is(2)))
+                .andExpect(jsonPath("$.creados", is(1)))
+                .andExpect(jsonPath("$.rechazos", hasSize(1)))
+                .andExpect(jsonPath("$.rechazos[0].linea", is(3)))
+                .andExpect(jsonPath("$.rechazos[0].motivo", is("El RUT no es válido")));
+
+        verify(duenoImportacionService, times(1)).importarCsv(any(InputStream.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/duenos/import debería retornar 400 si el archivo está vacío")
+    void importDuenos_shouldReturnBadRequest_whenFileIsEmpty() throws Exception {
+        // Given
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "duenos.csv", "text/csv", new byte[0]);
+
+        // When & Then
+        mockMvc.perform(multipart("/api/duenos/import").file(archivo))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("El archivo CSV está vacío.")));
+
+        verify(duenoImportacionService, never()).importarCsv(any(InputStream.class));
+    }
 }
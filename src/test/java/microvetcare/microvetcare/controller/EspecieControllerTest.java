@@ -26,7 +26,8 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(EspecieController.class)
+@WebMvcTest(controllers = EspecieController.class, properties = {
+        "concurrencia.limite.habilitado=false", "sql.inspector.habilitado=false"})
 @AutoConfigureMockMvc(addFilters = false)
 public class EspecieControllerTest {
 
@@ -0,0 +1,214 @@
+package microvetcare.microvetcare.controller;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import microvetcare.microvetcare.config.JwkSetLocal;
+import microvetcare.microvetcare.config.JwkSetLocalConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * JwkSetLocal contra un servidor de claves local que hace de Keycloak.
+ */
+public class JwkSetLocalTest {
+
+    private static final String ISSUER = "https://keycloak.test/realms/vetcare360";
+
+    private static RSAKey claveActual;
+    private static RSAKey claveRotada;
+
+    @TempDir
+    Path directorio;
+
+    private HttpServer servidor;
+    private URI jwkSetUri;
+    private Path archivo;
+    private final AtomicInteger descargas = new AtomicInteger();
+    private volatile JWKSet servidas;
+    private volatile int estado = 200;
+    private JwkSetLocal jwks;
+
+    @BeforeAll
+    static void generarClaves() throws JOSEException {
+        claveActual = new RSAKeyGenerator(2048).keyID("clave-1").generate();
+        claveRotada = new RSAKeyGenerator(2048).keyID("clave-2").generate();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        servidas = new JWKSet(claveActual.toPublicJWK());
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/certs", exchange -> {
+            descargas.incrementAndGet();
+            byte[] cuerpo = servidas.toString(true).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(estado, cuerpo.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(cuerpo);
+            }
+        });
+        servidor.start();
+        jwkSetUri = URI.create("http://127.0.0.1:" + servidor.getAddress().getPort() + "/certs");
+        archivo = directorio.resolve("jwks.json");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (jwks != null) {
+            jwks.close();
+        }
+        servidor.stop(0);
+    }
+
+    private JwkSetLocal crear(Duration refrescoMinimo) {
+        jwks = new JwkSetLocal(jwkSetUri, archivo, Duration.ofHours(1), refrescoMinimo, Duration.ofSeconds(2));
+        return jwks;
+    }
+
+    private static String token(RSAKey clave) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("usuario-1")
+                .issuer(ISSUER)
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(clave.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(clave));
+        return jwt.serialize();
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(limite);
+            Thread.sleep(20);
+        }
+    }
+
+    private boolean guardada(String kid) {
+        try {
+            return JWKSet.load(archivo.toFile()).getKeyByKeyId(kid) != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean decodifica(JwtDecoder decoder, String token) {
+        try {
+            decoder.decode(token);
+            return true;
+        } catch (JwtException e) {
+            return false;
+        }
+    }
+
+    @Test
+    @DisplayName("Sin archivo debería descargar al arrancar, guardar solo las claves públicas y validar tokens")
+    void arranque_shouldDownloadAndPersist() throws Exception {
+        // Given
+        JwtDecoder decoder = new JwkSetLocalConfig().jwtDecoder(crear(Duration.ZERO), ISSUER);
+
+        // When
+        String subject = decoder.decode(token(claveActual)).getSubject();
+
+        // Then
+        assertThat(subject).isEqualTo("usuario-1");
+        assertThat(descargas.get()).isEqualTo(1);
+        JWKSet guardado = JWKSet.load(archivo.toFile());
+        assertThat(guardado.getKeyByKeyId("clave-1")).isNotNull();
+        assertThat(guardado.getKeyByKeyId("clave-1").isPrivate()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Con archivo debería arrancar y validar aunque Keycloak no responda")
+    void arranque_shouldWorkOfflineFromFile() throws Exception {
+        // Given
+        Files.writeString(archivo, new JWKSet(claveActual.toPublicJWK()).toString(true));
+        servidor.stop(0);
+
+        // When
+        JwtDecoder decoder = new JwkSetLocalConfig().jwtDecoder(crear(Duration.ZERO), ISSUER);
+
+        // Then
+        assertThat(decoder.decode(token(claveActual)).getSubject()).isEqualTo("usuario-1");
+    }
+
+    @Test
+    @DisplayName("Ante un kid desconocido debería rechazar sin esperar a la red y tomar la clave nueva en segundo plano")
+    void kidDesconocido_shouldRefreshInBackground() throws Exception {
+        // Given
+        JwtDecoder decoder = new JwkSetLocalConfig().jwtDecoder(crear(Duration.ZERO), ISSUER);
+        servidas = new JWKSet(List.of(claveActual.toPublicJWK(), claveRotada.toPublicJWK()));
+        String tokenRotado = token(claveRotada);
+
+        // When / Then
+        assertThatThrownBy(() -> decoder.decode(tokenRotado)).isInstanceOf(JwtException.class);
+        esperar(() -> decodifica(decoder, tokenRotado));
+        assertThat(descargas.get()).isEqualTo(2);
+        // Las claves se publican en memoria antes de escribir el archivo
+        esperar(() -> guardada("clave-2"));
+    }
+
+    @Test
+    @DisplayName("Los kid desconocidos no deberían provocar más de una descarga dentro del intervalo mínimo")
+    void kidDesconocido_shouldBeRateLimited() throws Exception {
+        // Given
+        JwtDecoder decoder = new JwkSetLocalConfig().jwtDecoder(crear(Duration.ofMinutes(1)), ISSUER);
+        String tokenRotado = token(claveRotada);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            assertThat(decodifica(decoder, tokenRotado)).isFalse();
+        }
+
+        // Then
+        Thread.sleep(200);
+        assertThat(descargas.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Si Keycloak responde con error debería conservar las claves conocidas")
+    void refresco_shouldKeepKeysOnError() throws Exception {
+        // Given
+        JwtDecoder decoder = new JwkSetLocalConfig().jwtDecoder(crear(Duration.ZERO), ISSUER);
+        estado = 500;
+
+        // When
+        jwks.solicitarRefresco();
+        esperar(() -> descargas.get() == 2);
+        Thread.sleep(100);
+
+        // Then
+        assertThat(decoder.decode(token(claveActual)).getSubject()).isEqualTo("usuario-1");
+        assertThat(JWKSet.load(archivo.toFile()).getKeyByKeyId("clave-1")).isNotNull();
+    }
+}
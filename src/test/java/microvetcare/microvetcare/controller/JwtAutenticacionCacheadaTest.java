@@ -0,0 +1,119 @@
+package microvetcare.microvetcare.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microvetcare.microvetcare.config.JwtAutenticacionCacheada;
+import microvetcare.microvetcare.config.SecurityConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JwtAutenticacionCacheadaTest {
+
+    private final JwtDecoder jwtDecoder = mock(JwtDecoder.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtAutenticacionCacheada autenticacion = new JwtAutenticacionCacheada(jwtDecoder,
+            new SecurityConfig().jwtAuthenticationConverter("vetcare-app"), 100, Duration.ofHours(1), registry);
+
+    private static Jwt jwt(String token, Instant exp) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("usuario-1")
+                .issuedAt(exp.minusSeconds(600))
+                .expiresAt(exp)
+                .claim("realm_access", Map.of("roles", List.of("admin")))
+                .build();
+    }
+
+    private double gets(String resultado) {
+        return registry.get("cache.gets").tag("result", resultado).functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Debería verificar el token una sola vez y servir las siguientes peticiones desde la caché")
+    void authenticate_shouldDecodeOncePerToken() {
+        // Given
+        when(jwtDecoder.decode("token-a")).thenReturn(jwt("token-a", Instant.now().plusSeconds(300)));
+
+        // When
+        Authentication primera = autenticacion.authenticate(new BearerTokenAuthenticationToken("token-a"));
+        BearerTokenAuthenticationToken segundaPeticion = new BearerTokenAuthenticationToken("token-a");
+        segundaPeticion.setDetails("10.0.0.2");
+        Authentication segunda = autenticacion.authenticate(segundaPeticion);
+
+        // Then
+        verify(jwtDecoder, times(1)).decode("token-a");
+        assertThat(segunda).isInstanceOf(JwtAuthenticationToken.class);
+        assertThat(segunda.isAuthenticated()).isTrue();
+        assertThat(segunda.getName()).isEqualTo("usuario-1");
+        assertThat(segunda.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        assertThat(segunda.getDetails()).isEqualTo("10.0.0.2");
+        assertThat(primera.getDetails()).isNull();
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Tokens distintos no deberían compartir la entrada de caché")
+    void authenticate_shouldKeyByToken() {
+        // Given
+        when(jwtDecoder.decode("token-a")).thenReturn(jwt("token-a", Instant.now().plusSeconds(300)));
+        when(jwtDecoder.decode("token-b")).thenReturn(jwt("token-b", Instant.now().plusSeconds(300)));
+
+        // When
+        autenticacion.authenticate(new BearerTokenAuthenticationToken("token-a"));
+        autenticacion.authenticate(new BearerTokenAuthenticationToken("token-b"));
+
+        // Then
+        verify(jwtDecoder).decode("token-a");
+        verify(jwtDecoder).decode("token-b");
+        assertThat(gets("miss")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Un token ya vencido no debería quedar en caché")
+    void authenticate_shouldNotCacheExpiredToken() {
+        // Given
+        when(jwtDecoder.decode("token-vencido")).thenReturn(jwt("token-vencido", Instant.now().minusSeconds(1)));
+
+        // When
+        autenticacion.authenticate(new BearerTokenAuthenticationToken("token-vencido"));
+        autenticacion.authenticate(new BearerTokenAuthenticationToken("token-vencido"));
+
+        // Then
+        verify(jwtDecoder, times(2)).decode("token-vencido");
+        assertThat(gets("hit")).isZero();
+    }
+
+    @Test
+    @DisplayName("Un token inválido debería rechazarse siempre sin guardarse")
+    void authenticate_shouldNotCacheInvalidToken() {
+        // Given
+        when(jwtDecoder.decode("token-malo")).thenThrow(new BadJwtException("firma inválida"));
+
+        // When / Then
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> autenticacion.authenticate(new BearerTokenAuthenticationToken("token-malo")))
+                    .isInstanceOf(InvalidBearerTokenException.class);
+        }
+        verify(jwtDecoder, times(2)).decode("token-malo");
+    }
+}
@@ -0,0 +1,84 @@
+package microvetcare.microvetcare.controller;
+
+import microvetcare.microvetcare.config.KeycloakRealmRoleConverter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KeycloakRealmRoleConverterTest {
+
+    private static Jwt jwt(List<String> rolesRealm, Map<String, Object> resourceAccess) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("usuario-1")
+                .claim("realm_access", Map.of("roles", rolesRealm))
+                .claim("resource_access", resourceAccess)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Debería unir roles del realm y del cliente, sin duplicados y reutilizando las authorities conocidas")
+    void convert_shouldReuseKnownAuthorities() {
+        // Given
+        Jwt jwt = jwt(List.of("veterinario", "offline_access"),
+                Map.of("vetcare-app", Map.of("roles", List.of("Admin", "veterinario"))));
+
+        // When
+        Collection<GrantedAuthority> authorities = new KeycloakRealmRoleConverter().convert(jwt);
+
+        // Then
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_VETERINARIO", "ROLE_OFFLINE_ACCESS", "ROLE_ADMIN");
+        List<GrantedAuthority> lista = new ArrayList<>(authorities);
+        assertThat(lista.get(0)).isSameAs(KeycloakRealmRoleConverter.ROLE_VETERINARIO);
+        assertThat(lista.get(2)).isSameAs(KeycloakRealmRoleConverter.ROLE_ADMIN);
+    }
+
+    @Test
+    @DisplayName("Debería leer los roles del cliente configurado e ignorar los de otros clientes")
+    void convert_shouldUseConfiguredClient() {
+        // Given
+        Jwt jwt = jwt(List.of(), Map.of(
+                "vetcare-app", Map.of("roles", List.of("admin")),
+                "vetcare-movil", Map.of("roles", List.of("asistente"))));
+
+        // When
+        Collection<GrantedAuthority> authorities = new KeycloakRealmRoleConverter("vetcare-movil").convert(jwt);
+
+        // Then
+        assertThat(authorities).containsExactly(KeycloakRealmRoleConverter.ROLE_ASISTENTE);
+    }
+
+    @Test
+    @DisplayName("Debería ignorar claims con forma inesperada")
+    void convert_shouldIgnoreMalformedClaims() {
+        // Given
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim("realm_access", "admin")
+                .claim("resource_access", Map.of("vetcare-app", Map.of("roles", List.of(1, "asistente"))))
+                .build();
+
+        // When
+        Collection<GrantedAuthority> authorities = new KeycloakRealmRoleConverter().convert(jwt);
+
+        // Then
+        assertThat(authorities).containsExactly(KeycloakRealmRoleConverter.ROLE_ASISTENTE);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un id de cliente vacío")
+    void constructor_shouldRejectBlankClient() {
+        assertThatThrownBy(() -> new KeycloakRealmRoleConverter(" "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
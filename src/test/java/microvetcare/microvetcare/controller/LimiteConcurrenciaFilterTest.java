@@ -0,0 +1,146 @@
+package microvetcare.microvetcare.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microvetcare.microvetcare.concurrencia.LimiteAdaptativo;
+import microvetcare.microvetcare.concurrencia.LimiteConcurrenciaFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LimiteConcurrenciaFilterTest {
+
+    private static final long OBJETIVO = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private SimpleMeterRegistry registry;
+    private LimiteConcurrenciaFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // Lecturas y escrituras con un solo lugar cada una para poder llenarlas en el test
+        filter = new LimiteConcurrenciaFilter(1, 1, 1, Duration.ofMillis(100), Duration.ofSeconds(2), registry);
+    }
+
+    @Test
+    @DisplayName("Debería responder 503 con Retry-After cuando el límite de lecturas está lleno")
+    void doFilter_shouldReject_whenReadLimitIsFull() throws Exception {
+        // Given: una lectura en curso ocupa el único lugar mientras se procesa la segunda
+        MockHttpServletResponse rechazada = new MockHttpServletResponse();
+        MockFilterChain cadenaRechazada = new MockFilterChain();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/duenos"), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/mascotas"), rechazada, cadenaRechazada));
+
+        // Then
+        assertThat(rechazada.getStatus()).isEqualTo(503);
+        assertThat(rechazada.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(cadenaRechazada.getRequest()).isNull();
+        assertThat(registry.get("concurrencia.limite.rechazadas").tag("tipo", "lectura").counter().count()).isEqualTo(1);
+        assertThat(registry.get("concurrencia.limite.en_curso").tag("tipo", "lectura").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Las escrituras deberían tener su propio límite, independiente de las lecturas")
+    void doFilter_shouldTrackWritesSeparately() throws Exception {
+        // Given
+        MockHttpServletResponse escritura = new MockHttpServletResponse();
+        MockFilterChain cadenaEscritura = new MockFilterChain();
+
+        // When: con la lectura ocupando su lugar, un POST igual pasa
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/duenos"), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/duenos/create"), escritura, cadenaEscritura));
+
+        // Then
+        assertThat(escritura.getStatus()).isEqualTo(200);
+        assertThat(cadenaEscritura.getRequest()).isNotNull();
+        assertThat(registry.get("concurrencia.limite.rechazadas").tag("tipo", "escritura").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("No debería limitar las rutas fuera de /api, como actuator")
+    void doFilter_shouldSkipNonApiPaths() throws Exception {
+        MockHttpServletResponse salud = new MockHttpServletResponse();
+        MockFilterChain cadena = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/duenos"), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), salud, cadena));
+
+        assertThat(salud.getStatus()).isEqualTo(200);
+        assertThat(cadena.getRequest()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("La exportación y la importación no deberían ocupar lugar ni ajustar el límite")
+    void doFilter_shouldSkipLongRunningEndpoints() throws Exception {
+        // Given: límites de 4, con latencia objetivo de 100 ms
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        LimiteConcurrenciaFilter conMargen = new LimiteConcurrenciaFilter(4, 4, 4, Duration.ofMillis(100), Duration.ofSeconds(1), metricas);
+        MockHttpServletResponse exportacion = new MockHttpServletResponse();
+
+        // When: una importación más lenta que el objetivo y una exportación
+        conMargen.doFilter(new MockHttpServletRequest("POST", "/api/duenos/import"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    try {
+                        Thread.sleep(150);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        conMargen.doFilter(new MockHttpServletRequest("GET", "/api/mascotas/stream"), exportacion, new MockFilterChain());
+
+        // Then
+        assertThat(exportacion.getStatus()).isEqualTo(200);
+        assertThat(metricas.get("concurrencia.limite.actual").tag("tipo", "escritura").gauge().value()).isEqualTo(4);
+        assertThat(metricas.get("concurrencia.limite.actual").tag("tipo", "lectura").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("El límite debería crecer con respuestas rápidas y reducirse con lentas o con error")
+    void limiteAdaptativo_shouldIncreaseAdditivelyAndDecreaseMultiplicatively() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(4, 1, 8, OBJETIVO, 0.5);
+
+        // Tandas que llenan el límite con respuestas rápidas lo hacen crecer hasta el máximo, sin pasarlo
+        for (int tanda = 0; tanda < 50; tanda++) {
+            int enUso = limite.getLimite();
+            for (int i = 0; i < enUso; i++) {
+                assertThat(limite.intentarAdquirir()).isTrue();
+            }
+            assertThat(limite.intentarAdquirir()).isFalse();
+            for (int i = 0; i < enUso; i++) {
+                limite.liberar(TimeUnit.MILLISECONDS.toNanos(10), false);
+            }
+        }
+        assertThat(limite.getLimite()).isEqualTo(8);
+
+        // Una respuesta lenta y un error lo reducen a la mitad cada uno
+        limite.intentarAdquirir();
+        limite.liberar(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertThat(limite.getLimite()).isEqualTo(4);
+        limite.intentarAdquirir();
+        limite.liberar(TimeUnit.MILLISECONDS.toNanos(10), true);
+        assertThat(limite.getLimite()).isEqualTo(2);
+        assertThat(limite.getEnCurso()).isZero();
+    }
+
+    @Test
+    @DisplayName("Con poco tráfico el límite no debería crecer")
+    void limiteAdaptativo_shouldNotGrow_whenUnderused() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(4, 1, 8, OBJETIVO, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limite.intentarAdquirir();
+            limite.liberar(TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+
+        assertThat(limite.getLimite()).isEqualTo(4);
+    }
+}
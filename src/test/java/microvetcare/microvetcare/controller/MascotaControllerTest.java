@@ -3,6 +3,8 @@ package microvetcare.microvetcare.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule; // Necesario para LocalDate
 import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaLoteResultadoDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaPageDTO;
 import microvetcare.microvetcare.mascota.controller.MascotaController;
 import microvetcare.microvetcare.mascota.service.MascotaService;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
@@ -20,17 +22,22 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(MascotaController.class)
+@WebMvcTest(controllers = MascotaController.class, properties = {
+        "concurrencia.limite.habilitado=false", "sql.inspector.habilitado=false"})
 @AutoConfigureMockMvc(addFilters = false)
 public class MascotaControllerTest {
 
@@ -90,6 +97,68 @@ public class MascotaControllerTest {
         verify(mascotaService, times(1)).findAllMascotas();
     }
 
+    // --- Test para getMascotasPage() ---
+    @Test
+    @DisplayName("GET /api/mascotas?after&limit debería retornar una página con nextCursor")
+    void getMascotasPage_shouldReturnPageWithNextCursor() throws Exception {
+        // Given
+        MascotaPageDTO page = new MascotaPageDTO(Arrays.asList(mascotaDTO1, mascotaDTO2), 2L);
+        when(mascotaService.findMascotasPage(0L, 2)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/mascotas")
+                        .param("after", "0")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].nombre", is(mascotaDTO1.getNombre())))
+                .andExpect(jsonPath("$.nextCursor", is(2)));
+
+        verify(mascotaService, times(1)).findMascotasPage(0L, 2);
+        verify(mascotaService, never()).findAllMascotas();
+    }
+
+    @Test
+    @DisplayName("GET /api/mascotas?limit debería retornar 400 si el limit no es válido")
+    void getMascotasPage_shouldReturnBadRequest_whenLimitInvalid() throws Exception {
+        // Given
+        when(mascotaService.findMascotasPage(null, 0))
+                .thenThrow(new IllegalArgumentException("El parámetro limit debe estar entre 1 y 500"));
+
+        // When & Then
+        mockMvc.perform(get("/api/mascotas")
+                        .param("limit", "0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("El parámetro limit debe estar entre 1 y 500")));
+    }
+
+    // --- Test para streamMascotas() ---
+    @Test
+    @DisplayName("GET /api/mascotas/stream debería escribir una mascota por línea en NDJSON")
+    void streamMascotas_shouldWriteNdjson() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<MascotaDTO> consumer = invocation.getArgument(0);
+            consumer.accept(mascotaDTO1);
+            consumer.accept(mascotaDTO2);
+            return null;
+        }).when(mascotaService).streamAllMascotas(any());
+
+        // When & Then
+        String body = mockMvc.perform(get("/api/mascotas/stream"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = body.split("\n");
+        assertThat(lineas).hasSize(2);
+        assertThat(lineas[0]).contains("\"nombre\":\"Buddy\"");
+        assertThat(lineas[1]).contains("\"nombre\":\"Lucy\"");
+        verify(mascotaService, times(1)).streamAllMascotas(any());
+    }
+
     // --- Test para getMascotaById() ---
     @Test
     @DisplayName("GET /api/mascotas/{id} debería retornar una mascota por ID")
@@ -151,6 +220,52 @@ public class MascotaControllerTest {
         verify(mascotaService, times(1)).saveMascota(any(MascotaDTO.class), eq(101L), eq(201L));
     }
 
+    // --- Tests para createMascotas() ---
+    @Test
+    @DisplayName("POST /api/mascotas/bulk debería retornar un resultado por cada mascota enviada")
+    void createMascotas_shouldReturnResultPerItem() throws Exception {
+        // Given
+        MascotaDTO valida = new MascotaDTO(null, "Leo", "CHIP789", "Macho", 1, LocalDate.of(2023, 1, 1),
+                101L, 201L, null, null);
+        MascotaDTO sinDueno = new MascotaDTO(null, "Mia", "CHIP790", "Hembra", 1, LocalDate.of(2023, 1, 1),
+                999L, 201L, null, null);
+        MascotaDTO creada = new MascotaDTO(3L, "Leo", "CHIP789", "Macho", 1, LocalDate.of(2023, 1, 1),
+                101L, 201L, "Juan Perez", "Labrador");
+
+        when(mascotaService.saveMascotas(anyList())).thenReturn(List.of(
+                MascotaLoteResultadoDTO.creada(0, creada),
+                MascotaLoteResultadoDTO.rechazada(1, "Dueño no encontrado con ID: 999")));
+
+        // When & Then
+        mockMvc.perform(post("/api/mascotas/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valida, sinDueno))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].creada", is(true)))
+                .andExpect(jsonPath("$[0].mascota.id", is(3)))
+                .andExpect(jsonPath("$[1].indice", is(1)))
+                .andExpect(jsonPath("$[1].creada", is(false)))
+                .andExpect(jsonPath("$[1].error", is("Dueño no encontrado con ID: 999")));
+
+        verify(mascotaService, times(1)).saveMascotas(argThat(lote -> lote.size() == 2));
+    }
+
+    @Test
+    @DisplayName("POST /api/mascotas/bulk debería retornar 400 si el lote supera el máximo")
+    void createMascotas_shouldReturnBadRequest_whenTooManyItems() throws Exception {
+        // Given
+        when(mascotaService.saveMascotas(anyList()))
+                .thenThrow(new IllegalArgumentException("No se pueden crear más de 500 mascotas por solicitud"));
+
+        // When & Then
+        mockMvc.perform(post("/api/mascotas/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("No se pueden crear más de 500 mascotas por solicitud")));
+    }
+
     @Test
     @DisplayName("POST /api/mascotas/create debería retornar 404 si dueño/raza no se encuentran")
     void createMascota_shouldReturnNotFound_whenDuenoOrRazaNotExists() throws Exception {
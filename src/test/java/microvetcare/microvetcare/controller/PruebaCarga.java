@@ -0,0 +1,467 @@
+package microvetcare.microvetcare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.service.FiltroClavesDueno;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.especie.repository.EspecieRepository;
+import microvetcare.microvetcare.especie.service.EspecieCatalogo;
+import microvetcare.microvetcare.mascota.entity.Mascota;
+import microvetcare.microvetcare.mascota.repository.MascotaRepository;
+import microvetcare.microvetcare.raza.entity.Raza;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de punta a punta: levanta la aplicación completa (Tomcat, seguridad, filtros, JPA, proxy JDBC)
+ * sobre H2 en memoria en modo Oracle, siembra un volumen configurable de especies, razas, dueños y mascotas,
+ * y manda tráfico mixto de lectura/escritura por HTTP a los cuatro controladores.
+ *
+ * Deja en target/loadtest/{escenario}.json y .md el throughput, los percentiles de latencia por operación
+ * y las sentencias SQL por endpoint (sql.peticion.sentencias), como línea base para comparar cambios.
+ *
+ * No corre con el build normal. Ejemplo:
+ *   mvn test -Dloadtest=true -Dtest='PruebaCarga*Test' -Dloadtest.duenos=5000 -Dloadtest.duracion=PT60S
+ *
+ * El JWT se reemplaza por un JwtDecoder de prueba: cualquier token es un ADMIN, sin ir a Keycloak.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:carga-${random.uuid};MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=0",
+        "seguridad.jwt.jwks-local.habilitado=false",
+        // Se miden las sentencias por endpoint; el WARN por petición solo llenaría la salida
+        "sql.presupuesto.sentencias=0",
+        // Los escenarios difieren solo en el modelo de hilos; -Dloadtest.limite=true mide con el límite adaptativo
+        "concurrencia.limite.habilitado=${loadtest.limite:false}"
+})
+@Import(PruebaCarga.JwtDePrueba.class)
+abstract class PruebaCarga {
+
+    private static final Path DIRECTORIO_REPORTE = Path.of("target", "loadtest");
+
+    @TestConfiguration
+    static class JwtDePrueba {
+        @Bean
+        @Primary
+        JwtDecoder jwtDecoderDePrueba() {
+            return token -> Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject("prueba-carga")
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(3600))
+                    .claim("realm_access", Map.of("roles", List.of("admin")))
+                    .build();
+        }
+    }
+
+    @LocalServerPort
+    private int puerto;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    @Value("${concurrencia.limite.habilitado}")
+    private boolean limiteAdaptativo;
+
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private EspecieRepository especieRepository;
+    @Autowired
+    private RazaRepository razaRepository;
+    @Autowired
+    private DuenoRepository duenoRepository;
+    @Autowired
+    private MascotaRepository mascotaRepository;
+    @Autowired
+    private RazaCatalogo razaCatalogo;
+    @Autowired
+    private EspecieCatalogo especieCatalogo;
+    @Autowired
+    private FiltroClavesDueno filtroClavesDueno;
+
+    private final int especies = Integer.getInteger("loadtest.especies", 5);
+    private final int razasPorEspecie = Integer.getInteger("loadtest.razasPorEspecie", 8);
+    private final int duenos = Integer.getInteger("loadtest.duenos", 2000);
+    private final int mascotasPorDueno = Integer.getInteger("loadtest.mascotasPorDueno", 3);
+    private final int clientes = Integer.getInteger("loadtest.clientes", 32);
+    private final Duration calentamiento = Duration.parse(System.getProperty("loadtest.calentamiento", "PT5S"));
+    private final Duration duracion = Duration.parse(System.getProperty("loadtest.duracion", "PT30S"));
+
+    private final AtomicLong secuenciaRut = new AtomicLong(50_000_000);
+    private final AtomicLong secuenciaChip = new AtomicLong();
+    private List<Long> razaIds;
+    private List<Long> duenoIds;
+    private List<String> ruts;
+    private List<Long> mascotaIds;
+    private HttpClient http;
+
+    /** Nombre del archivo de reporte. */
+    protected abstract String escenario();
+
+    // Mezcla de tráfico: 85% lecturas, 15% escrituras. El peso es la cantidad de entradas en la tabla
+    private enum Operacion {
+        MASCOTAS_PAGINA(15), MASCOTA_POR_ID(20), MASCOTAS_POR_DUENO(10), DUENO_POR_ID(15), DUENO_POR_RUT(10),
+        RAZAS(3), RAZA_POR_ID(4), ESPECIES(3), CREAR_DUENO(5), CREAR_MASCOTA(5), ACTUALIZAR_MASCOTA(5);
+
+        private final int peso;
+
+        Operacion(int peso) {
+            this.peso = peso;
+        }
+    }
+
+    private static final Operacion[] MEZCLA = Arrays.stream(Operacion.values())
+            .flatMap(op -> Stream.generate(() -> op).limit(op.peso))
+            .toArray(Operacion[]::new);
+
+    /** Latencias de un cliente, sin sincronización: cada hilo cliente tiene las suyas y se juntan al final. */
+    private static final class Muestras {
+        private final long[][] latencias = new long[Operacion.values().length][1024];
+        private final int[] cantidad = new int[Operacion.values().length];
+        private final long[] errores = new long[Operacion.values().length];
+        private long rechazadas;
+
+        void registrar(Operacion op, long nanos) {
+            int i = op.ordinal();
+            if (cantidad[i] == latencias[i].length) {
+                latencias[i] = Arrays.copyOf(latencias[i], latencias[i].length * 2);
+            }
+            latencias[i][cantidad[i]++] = nanos;
+        }
+    }
+
+    @Test
+    void cargaMixta() throws Exception {
+        sembrar();
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+
+        ejecutar(calentamiento);
+        Map<String, double[]> sentenciasAntes = sentenciasPorEndpoint();
+        long inicio = System.nanoTime();
+        List<Muestras> muestras = ejecutar(duracion);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Map<String, Object> reporte = reporte(muestras, segundos, sentenciasAntes);
+        escribirReporte(reporte);
+
+        assertThat((long) reporte.get("solicitudes")).isPositive();
+        assertThat((long) reporte.get("errores")).as("respuestas distintas de 2xx/404/503, ver el reporte").isZero();
+    }
+
+    private void sembrar() {
+        List<Especie> especiesGuardadas = especieRepository.saveAll(
+                IntStream.range(0, especies)
+                        .mapToObj(i -> new Especie(null, "Especie cientifica " + i, "Especie" + i, 1)).toList());
+        List<Raza> razas = new ArrayList<>();
+        for (Especie especie : especiesGuardadas) {
+            for (int i = 0; i < razasPorEspecie; i++) {
+                razas.add(new Raza(especie.getNombre() + " raza " + i, "A", especie));
+            }
+        }
+        razaIds = razaRepository.saveAll(razas).stream().map(Raza::getId).toList();
+
+        duenoIds = new ArrayList<>(duenos);
+        ruts = new ArrayList<>(duenos);
+        mascotaIds = new ArrayList<>(duenos * mascotasPorDueno);
+        List<Raza> razasGuardadas = razaRepository.findAllById(razaIds);
+        for (int desde = 0; desde < duenos; desde += 500) {
+            List<Dueno> bloque = new ArrayList<>();
+            for (int i = desde; i < Math.min(desde + 500, duenos); i++) {
+                bloque.add(new Dueno(String.format("%08d-%d", i + 1, i % 10), "Nombre" + i, "Apellido" + i,
+                        "Calle " + i, String.format("9%010d", i), "dueno" + i + "@carga.cl", true));
+            }
+            List<Dueno> guardados = duenoRepository.saveAll(bloque);
+            List<Mascota> mascotas = new ArrayList<>();
+            for (Dueno dueno : guardados) {
+                duenoIds.add(dueno.getId());
+                ruts.add(dueno.getRut());
+                for (int m = 0; m < mascotasPorDueno; m++) {
+                    mascotas.add(new Mascota(null, "Mascota" + m, LocalDate.of(2015, 1, 1).plusDays(dueno.getId() % 3000), 1,
+                            "SEED" + secuenciaChip.incrementAndGet(), m % 2 == 0 ? "Macho" : "Hembra", dueno,
+                            razasGuardadas.get(ThreadLocalRandom.current().nextInt(razasGuardadas.size()))));
+                }
+            }
+            mascotaRepository.saveAll(mascotas).forEach(mascota -> mascotaIds.add(mascota.getId()));
+        }
+        // La siembra va directo a los repositorios, así que los catálogos y el filtro se cargan a mano
+        razaCatalogo.recargar();
+        especieCatalogo.recargar();
+        filtroClavesDueno.reconstruir();
+    }
+
+    private List<Muestras> ejecutar(Duration tiempo) throws InterruptedException {
+        long fin = System.nanoTime() + tiempo.toNanos();
+        List<Muestras> resultado = new ArrayList<>();
+        CountDownLatch terminados = new CountDownLatch(clientes);
+        for (int c = 0; c < clientes; c++) {
+            Muestras muestras = new Muestras();
+            resultado.add(muestras);
+            Thread.ofPlatform().name("carga-" + c).start(() -> {
+                try {
+                    while (System.nanoTime() < fin) {
+                        Operacion op = MEZCLA[ThreadLocalRandom.current().nextInt(MEZCLA.length)];
+                        long inicio = System.nanoTime();
+                        int status = enviar(op);
+                        long nanos = System.nanoTime() - inicio;
+                        if (status == 503) {
+                            muestras.rechazadas++;
+                        } else if (status / 100 == 2 || (status == 404 && op == Operacion.DUENO_POR_RUT)) {
+                            muestras.registrar(op, nanos);
+                        } else {
+                            muestras.errores[op.ordinal()]++;
+                        }
+                    }
+                } finally {
+                    terminados.countDown();
+                }
+            });
+        }
+        terminados.await();
+        return resultado;
+    }
+
+    private int enviar(Operacion op) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        Long mascotaId = mascotaIds.get(azar.nextInt(mascotaIds.size()));
+        Long duenoId = duenoIds.get(azar.nextInt(duenoIds.size()));
+        Long razaId = razaIds.get(azar.nextInt(razaIds.size()));
+        HttpRequest request = switch (op) {
+            case MASCOTAS_PAGINA -> get("/api/mascotas?limit=50&after=" + azar.nextLong(mascotaIds.get(mascotaIds.size() - 1)));
+            case MASCOTA_POR_ID -> get("/api/mascotas/" + mascotaId);
+            case MASCOTAS_POR_DUENO -> get("/api/mascotas/dueno/" + duenoId);
+            case DUENO_POR_ID -> get("/api/duenos/" + duenoId);
+            // Uno de cada cinco RUT no existe: ejercita el filtro Bloom
+            case DUENO_POR_RUT -> get("/api/duenos/rut/" + (azar.nextInt(5) == 0
+                    ? "99" + azar.nextInt(1_000_000) + "-K" : ruts.get(azar.nextInt(ruts.size()))));
+            case RAZAS -> get("/api/razas");
+            case RAZA_POR_ID -> get("/api/razas/" + razaId);
+            case ESPECIES -> get("/api/especies");
+            case CREAR_DUENO -> {
+                long rut = secuenciaRut.incrementAndGet();
+                yield post("/api/duenos/create", "{\"rut\":\"" + rut + "-" + rut % 10 + "\",\"nombre\":\"Nuevo\","
+                        + "\"apellido\":\"Dueno\",\"email\":\"nuevo" + rut + "@carga.cl\",\"estado\":true}");
+            }
+            case CREAR_MASCOTA -> post("/api/mascotas/create?duenoId=" + duenoId + "&razaId=" + razaId, mascotaJson());
+            case ACTUALIZAR_MASCOTA -> HttpRequest.newBuilder(uri("/api/mascotas/" + mascotaId + "?duenoId=" + duenoId + "&razaId=" + razaId))
+                    .header("Authorization", "Bearer carga").header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(mascotaJson())).build();
+        };
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private String mascotaJson() {
+        return "{\"nombre\":\"Carga\",\"chip\":\"CARGA" + secuenciaChip.incrementAndGet() + "\",\"genero\":\"Macho\","
+                + "\"estado\":1,\"fechaNacimiento\":\"2021-06-01\"}";
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://localhost:" + puerto + ruta);
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(uri(ruta)).header("Authorization", "Bearer carga").GET().build();
+    }
+
+    private HttpRequest post(String ruta, String json) {
+        return HttpRequest.newBuilder(uri(ruta)).header("Authorization", "Bearer carga")
+                .header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    // {cantidad, total de sentencias, segundos en base de datos} por endpoint, para restar el calentamiento
+    private Map<String, double[]> sentenciasPorEndpoint() {
+        Map<String, double[]> porEndpoint = new HashMap<>();
+        for (DistributionSummary resumen : registry.find("sql.peticion.sentencias").summaries()) {
+            String endpoint = resumen.getId().getTag("endpoint");
+            Timer tiempo = registry.find("sql.peticion.tiempo").tag("endpoint", endpoint).timer();
+            porEndpoint.put(endpoint, new double[] {resumen.count(), resumen.totalAmount(),
+                    tiempo != null ? tiempo.totalTime(TimeUnit.SECONDS) : 0});
+        }
+        return porEndpoint;
+    }
+
+    private Map<String, Object> reporte(List<Muestras> muestras, double segundos, Map<String, double[]> sentenciasAntes) {
+        long solicitudes = 0;
+        long errores = 0;
+        long rechazadas = 0;
+        long[] todas = new long[0];
+        List<Map<String, Object>> operaciones = new ArrayList<>();
+        for (Operacion op : Operacion.values()) {
+            long[] latencias = new long[0];
+            long erroresOp = 0;
+            for (Muestras m : muestras) {
+                int i = op.ordinal();
+                int desde = latencias.length;
+                latencias = Arrays.copyOf(latencias, desde + m.cantidad[i]);
+                System.arraycopy(m.latencias[i], 0, latencias, desde, m.cantidad[i]);
+                erroresOp += m.errores[i];
+            }
+            Arrays.sort(latencias);
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("operacion", op.name());
+            fila.put("solicitudes", latencias.length);
+            fila.put("errores", erroresOp);
+            fila.putAll(percentiles(latencias));
+            operaciones.add(fila);
+            solicitudes += latencias.length;
+            errores += erroresOp;
+            int desde = todas.length;
+            todas = Arrays.copyOf(todas, desde + latencias.length);
+            System.arraycopy(latencias, 0, todas, desde, latencias.length);
+        }
+        for (Muestras m : muestras) {
+            rechazadas += m.rechazadas;
+        }
+        Arrays.sort(todas);
+
+        List<Map<String, Object>> sentencias = new ArrayList<>();
+        sentenciasPorEndpoint().forEach((endpoint, despues) -> {
+            double[] antes = sentenciasAntes.getOrDefault(endpoint, new double[3]);
+            double peticiones = despues[0] - antes[0];
+            if (peticiones > 0) {
+                Map<String, Object> fila = new LinkedHashMap<>();
+                fila.put("endpoint", endpoint);
+                fila.put("peticiones", (long) peticiones);
+                fila.put("sentenciasPromedio", redondear((despues[1] - antes[1]) / peticiones));
+                fila.put("msBaseDeDatosPromedio", redondear((despues[2] - antes[2]) * 1000 / peticiones));
+                sentencias.add(fila);
+            }
+        });
+        sentencias.sort((a, b) -> ((String) a.get("endpoint")).compareTo((String) b.get("endpoint")));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("hilosVirtuales", hilosVirtuales);
+        config.put("limiteAdaptativo", limiteAdaptativo);
+        config.put("clientes", clientes);
+        config.put("duracion", duracion.toString());
+        config.put("especies", especies);
+        config.put("razas", razaIds.size());
+        config.put("duenos", duenos);
+        config.put("mascotas", mascotaIds.size());
+
+        Map<String, Object> reporte = new LinkedHashMap<>();
+        reporte.put("escenario", escenario());
+        reporte.put("fecha", Instant.now().toString());
+        reporte.put("configuracion", config);
+        reporte.put("segundos", redondear(segundos));
+        reporte.put("solicitudes", solicitudes);
+        reporte.put("solicitudesPorSegundo", redondear(solicitudes / segundos));
+        reporte.put("rechazadas503", rechazadas);
+        reporte.put("errores", errores);
+        reporte.put("latenciaMs", percentiles(todas));
+        reporte.put("operaciones", operaciones);
+        reporte.put("sentenciasPorEndpoint", sentencias);
+        // Cuánto se espera una conexión del pool y cuánto se retiene: lo que acorta desactivar open-in-view
+        reporte.put("conexionesMs", Map.of(
+                "esperaPromedio", redondear(promedioMs("hikaricp.connections.acquire")),
+                "retencionPromedio", redondear(promedioMs("hikaricp.connections.usage"))));
+        return reporte;
+    }
+
+    // Desde el arranque: incluye la siembra y el calentamiento
+    private double promedioMs(String metrica) {
+        Timer timer = registry.find(metrica).timer();
+        return timer != null ? timer.mean(TimeUnit.MILLISECONDS) : 0;
+    }
+
+    private static Map<String, Object> percentiles(long[] ordenadas) {
+        Map<String, Object> p = new LinkedHashMap<>();
+        p.put("p50", percentil(ordenadas, 0.50));
+        p.put("p90", percentil(ordenadas, 0.90));
+        p.put("p99", percentil(ordenadas, 0.99));
+        p.put("max", ordenadas.length == 0 ? 0 : redondear(ordenadas[ordenadas.length - 1] / 1e6));
+        return p;
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return redondear(ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void escribirReporte(Map<String, Object> reporte) throws IOException {
+        Files.createDirectories(DIRECTORIO_REPORTE);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(DIRECTORIO_REPORTE.resolve(escenario() + ".json").toFile(), reporte);
+
+        StringBuilder md = new StringBuilder();
+        Map<String, Object> latencia = (Map<String, Object>) reporte.get("latenciaMs");
+        md.append("# Prueba de carga: ").append(escenario()).append("\n\n")
+                .append("Configuración: ").append(reporte.get("configuracion")).append("\n\n")
+                .append("| solicitudes/s | p50 ms | p90 ms | p99 ms | max ms | 503 | errores |\n|---|---|---|---|---|---|---|\n")
+                .append(String.format("| %s | %s | %s | %s | %s | %s | %s |%n%n", reporte.get("solicitudesPorSegundo"),
+                        latencia.get("p50"), latencia.get("p90"), latencia.get("p99"), latencia.get("max"),
+                        reporte.get("rechazadas503"), reporte.get("errores")))
+                .append("| operación | solicitudes | p50 ms | p90 ms | p99 ms | max ms | errores |\n|---|---|---|---|---|---|---|\n");
+        for (Map<String, Object> op : (List<Map<String, Object>>) reporte.get("operaciones")) {
+            md.append(String.format("| %s | %s | %s | %s | %s | %s | %s |%n", op.get("operacion"), op.get("solicitudes"),
+                    op.get("p50"), op.get("p90"), op.get("p99"), op.get("max"), op.get("errores")));
+        }
+        md.append("\nConexiones del pool (ms promedio): ").append(reporte.get("conexionesMs")).append("\n");
+        md.append("\n| endpoint | peticiones | sentencias SQL promedio | ms de base de datos promedio |\n|---|---|---|---|\n");
+        for (Map<String, Object> fila : (List<Map<String, Object>>) reporte.get("sentenciasPorEndpoint")) {
+            md.append(String.format("| %s | %s | %s | %s |%n", fila.get("endpoint"), fila.get("peticiones"),
+                    fila.get("sentenciasPromedio"), fila.get("msBaseDeDatosPromedio")));
+        }
+        Files.writeString(DIRECTORIO_REPORTE.resolve(escenario() + ".md"), md);
+    }
+}
@@ -0,0 +1,15 @@
+package microvetcare.microvetcare.controller;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+/** Prueba de carga con los hilos de plataforma de Tomcat (configuración por defecto). */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+public class PruebaCargaHilosPlataformaTest extends PruebaCarga {
+
+    @Override
+    protected String escenario() {
+        return "hilos-plataforma";
+    }
+}
@@ -0,0 +1,19 @@
+package microvetcare.microvetcare.controller;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * La misma carga con Tomcat sobre hilos virtuales, para comparar target/loadtest/hilos-virtuales.md con
+ * hilos-plataforma.md. Correr ambas en la misma ejecución para que compartan máquina y volumen sembrado.
+ * VIRTUAL_THREADS=true además activa el límite adaptativo; aquí queda como en el otro escenario.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+public class PruebaCargaHilosVirtualesTest extends PruebaCarga {
+
+    @Override
+    protected String escenario() {
+        return "hilos-virtuales";
+    }
+}
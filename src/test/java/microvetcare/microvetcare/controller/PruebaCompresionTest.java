@@ -0,0 +1,211 @@
+package microvetcare.microvetcare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.especie.repository.EspecieRepository;
+import microvetcare.microvetcare.especie.service.EspecieCatalogo;
+import microvetcare.microvetcare.mascota.entity.Mascota;
+import microvetcare.microvetcare.mascota.repository.MascotaRepository;
+import microvetcare.microvetcare.raza.entity.Raza;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes en el cable y tiempo hasta el último byte de los listados, sin comprimir y con gzip,
+ * por HTTP/1.1 y por HTTP/2 en texto plano (h2c). Usa la misma aplicación completa sobre H2 que PruebaCarga.
+ *
+ * Deja target/loadtest/compresion.json y .md. No corre con el build normal:
+ *   mvn test -Dloadtest=true -Dtest=PruebaCompresionTest -Dloadtest.mascotas=20000
+ *
+ * Es loopback: el tiempo muestra el costo de comprimir; el ahorro real en la red del front lo da la columna de bytes.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:compresion-${random.uuid};MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=0",
+        "seguridad.jwt.jwks-local.habilitado=false",
+        "sql.presupuesto.sentencias=0",
+        "server.compression.enabled=true",
+        "server.http2.enabled=true"
+})
+@Import(PruebaCarga.JwtDePrueba.class)
+public class PruebaCompresionTest {
+
+    private static final Path DIRECTORIO_REPORTE = Path.of("target", "loadtest");
+    private static final List<String> ENDPOINTS = List.of(
+            "/api/razas",
+            "/api/mascotas?limit=100",
+            "/api/mascotas?limit=500",
+            "/api/mascotas",
+            "/api/mascotas/stream",
+            "/api/duenos");
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+    @Autowired
+    private RazaRepository razaRepository;
+    @Autowired
+    private DuenoRepository duenoRepository;
+    @Autowired
+    private MascotaRepository mascotaRepository;
+    @Autowired
+    private RazaCatalogo razaCatalogo;
+    @Autowired
+    private EspecieCatalogo especieCatalogo;
+
+    private final int mascotas = Integer.getInteger("loadtest.mascotas", 6000);
+    private final int repeticiones = Integer.getInteger("loadtest.repeticiones", 30);
+
+    private void sembrar() {
+        List<Especie> especies = especieRepository.saveAll(List.of(
+                new Especie(null, "Canis lupus familiaris", "Perro", 1),
+                new Especie(null, "Felis catus", "Gato", 1)));
+        List<Raza> razas = new ArrayList<>();
+        for (Especie especie : especies) {
+            for (int i = 0; i < 20; i++) {
+                razas.add(new Raza(especie.getNombre() + " raza " + i, "A", especie));
+            }
+        }
+        razas = razaRepository.saveAll(razas);
+        // Tres mascotas por dueño, como en PruebaCarga
+        for (int desde = 0; desde < mascotas; desde += 1500) {
+            List<Dueno> duenos = new ArrayList<>();
+            for (int i = desde; i < Math.min(desde + 1500, mascotas); i += 3) {
+                duenos.add(new Dueno(String.format("%08d-%d", i + 1, i % 10), "Nombre" + i, "Apellido" + i,
+                        "Calle " + i, String.format("9%010d", i), "dueno" + i + "@compresion.cl", true));
+            }
+            List<Mascota> bloque = new ArrayList<>();
+            for (Dueno dueno : duenoRepository.saveAll(duenos)) {
+                for (int m = 0; m < 3; m++) {
+                    bloque.add(new Mascota(null, "Mascota" + m, LocalDate.of(2015, 1, 1).plusDays(dueno.getId() % 3000), 1,
+                            "CHIP" + dueno.getId() + "-" + m, m % 2 == 0 ? "Macho" : "Hembra", dueno,
+                            razas.get((int) (dueno.getId() % razas.size()))));
+                }
+            }
+            mascotaRepository.saveAll(bloque);
+        }
+        razaCatalogo.recargar();
+        especieCatalogo.recargar();
+    }
+
+    private HttpResponse<byte[]> pedir(HttpClient cliente, String ruta, String encoding) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .header("Authorization", "Bearer compresion")
+                .header("Accept-Encoding", encoding)
+                .GET().build();
+        HttpResponse<byte[]> response = cliente.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).as(ruta).isEqualTo(200);
+        return response;
+    }
+
+    private static byte[] descomprimir(HttpResponse<byte[]> response) throws IOException {
+        if (!"gzip".equals(response.headers().firstValue("Content-Encoding").orElse(null))) {
+            return response.body();
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    @Test
+    void bytesYTiempoHastaElUltimoByte() throws Exception {
+        sembrar();
+        List<Map<String, Object>> filas = new ArrayList<>();
+
+        for (HttpClient.Version version : List.of(HttpClient.Version.HTTP_1_1, HttpClient.Version.HTTP_2)) {
+            try (HttpClient cliente = HttpClient.newBuilder().version(version).build()) {
+                for (String ruta : ENDPOINTS) {
+                    long sinComprimir = 0;
+                    for (String encoding : List.of("identity", "gzip")) {
+                        HttpResponse<byte[]> primera = pedir(cliente, ruta, encoding);
+                        byte[] contenido = descomprimir(primera);
+                        if (sinComprimir == 0) {
+                            sinComprimir = contenido.length;
+                        }
+                        assertThat(contenido.length).as("%s %s descomprimido", ruta, encoding).isEqualTo((int) sinComprimir);
+
+                        for (int i = 0; i < 5; i++) {
+                            pedir(cliente, ruta, encoding);
+                        }
+                        long[] nanos = new long[repeticiones];
+                        for (int i = 0; i < repeticiones; i++) {
+                            long inicio = System.nanoTime();
+                            pedir(cliente, ruta, encoding);
+                            nanos[i] = System.nanoTime() - inicio;
+                        }
+                        Arrays.sort(nanos);
+
+                        Map<String, Object> fila = new LinkedHashMap<>();
+                        fila.put("endpoint", ruta);
+                        fila.put("protocolo", primera.version() == HttpClient.Version.HTTP_2 ? "h2c" : "HTTP/1.1");
+                        fila.put("contentEncoding", primera.headers().firstValue("Content-Encoding").orElse("identity"));
+                        fila.put("bytes", primera.body().length);
+                        fila.put("ratio", Math.round(1000.0 * primera.body().length / sinComprimir) / 1000.0);
+                        fila.put("ttlbP50Ms", nanos[nanos.length / 2] / 1_000_000.0);
+                        fila.put("ttlbP95Ms", nanos[(int) Math.ceil(nanos.length * 0.95) - 1] / 1_000_000.0);
+                        filas.add(fila);
+                    }
+                }
+            }
+        }
+
+        escribirReporte(filas);
+        assertThat(filas).filteredOn(f -> "/api/mascotas".equals(f.get("endpoint")) && "gzip".equals(f.get("contentEncoding")))
+                .as("el listado completo debería salir comprimido en ambos protocolos")
+                .hasSize(2);
+    }
+
+    private void escribirReporte(List<Map<String, Object>> filas) throws IOException {
+        Files.createDirectories(DIRECTORIO_REPORTE);
+        Map<String, Object> reporte = new LinkedHashMap<>();
+        reporte.put("mascotas", mascotas);
+        reporte.put("repeticiones", repeticiones);
+        reporte.put("resultados", filas);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(DIRECTORIO_REPORTE.resolve("compresion.json").toFile(), reporte);
+
+        StringBuilder md = new StringBuilder("# Compresión y HTTP/2 (" + mascotas + " mascotas)\n\n")
+                .append("| Endpoint | Protocolo | Content-Encoding | Bytes | Ratio | TTLB p50 ms | TTLB p95 ms |\n")
+                .append("|---|---|---|---:|---:|---:|---:|\n");
+        for (Map<String, Object> fila : filas) {
+            md.append(String.format("| %s | %s | %s | %d | %.3f | %.2f | %.2f |%n", fila.get("endpoint"), fila.get("protocolo"),
+                    fila.get("contentEncoding"), fila.get("bytes"), fila.get("ratio"), fila.get("ttlbP50Ms"), fila.get("ttlbP95Ms")));
+        }
+        Files.writeString(DIRECTORIO_REPORTE.resolve("compresion.md"), md);
+    }
+}
@@ -28,7 +28,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 // Anotación para pruebas de la capa web (controladores)
-@WebMvcTest(RazaController.class)
+@WebMvcTest(controllers = RazaController.class, properties = {
+        "concurrencia.limite.habilitado=false", "sql.inspector.habilitado=false"})
 @AutoConfigureMockMvc(addFilters = false)
 public class RazaControllerTest {
 
@@ -72,7 +73,7 @@ public class RazaControllerTest {
 
         // When & Then
         mockMvc.perform(get("/api/razas")
-                .header("Authorization", "Bearer token")) // Simulamos un token para pasar el @PreAuthorize
+                .header("Authorization", "Bearer token")) // Simulamos un token; los filtros de seguridad están desactivados en este test
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].nombre", is("Labrador")))
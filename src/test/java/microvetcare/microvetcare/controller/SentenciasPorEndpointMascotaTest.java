@@ -0,0 +1,154 @@
+package microvetcare.microvetcare.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.especie.repository.EspecieRepository;
+import microvetcare.microvetcare.especie.service.EspecieCatalogo;
+import microvetcare.microvetcare.mascota.entity.Mascota;
+import microvetcare.microvetcare.mascota.repository.MascotaRepository;
+import microvetcare.microvetcare.raza.entity.Raza;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cuenta las sentencias SQL de cada petición GET de mascotas como las ve producción: por el filtro
+ * SentenciasPorPeticionFilter y el summary sql.peticion.sentencias, con la aplicación completa sobre H2.
+ * Cada endpoint se llama con un resultado de una fila y con uno de muchas: un N+1 haría crecer el conteo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sentencias-${random.uuid};MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "sql.presupuesto.sentencias=0"
+})
+@AutoConfigureMockMvc
+@Import(PruebaCarga.JwtDePrueba.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SentenciasPorEndpointMascotaTest {
+
+    private static final int MUCHAS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private EspecieRepository especieRepository;
+    @Autowired
+    private RazaRepository razaRepository;
+    @Autowired
+    private DuenoRepository duenoRepository;
+    @Autowired
+    private MascotaRepository mascotaRepository;
+    @Autowired
+    private RazaCatalogo razaCatalogo;
+    @Autowired
+    private EspecieCatalogo especieCatalogo;
+
+    private Long duenoUna;
+    private Long duenoVarias;
+    private Long razaUna;
+    private Long razaVarias;
+
+    private Dueno dueno(int i) {
+        return duenoRepository.save(new Dueno(String.format("%08d-%d", i + 1, i % 10), "Nombre" + i, "Apellido" + i,
+                "Calle " + i, String.format("9%010d", i), "dueno" + i + "@sentencias.cl", true));
+    }
+
+    // "Sola" es la única Hembra, nacida antes de 2015, de razaUna y de duenoUna. Las "Buddy" tienen dueños
+    // distintos salvo las pares, que comparten duenoVarias, y todas son de razaVarias
+    @BeforeAll
+    void sembrar() {
+        Especie especie = especieRepository.save(new Especie(null, "Canis familiaris", "Perro", 1));
+        Raza una = razaRepository.save(new Raza("Pug", "A", especie));
+        Raza varias = razaRepository.save(new Raza("Labrador", "A", especie));
+        razaUna = una.getId();
+        razaVarias = varias.getId();
+
+        Dueno primero = dueno(0);
+        duenoUna = primero.getId();
+        mascotaRepository.save(new Mascota(null, "Sola", LocalDate.of(2010, 1, 1), 1, "CHIP0", "Hembra", primero, una));
+        Dueno compartido = dueno(1);
+        duenoVarias = compartido.getId();
+        for (int i = 1; i <= MUCHAS; i++) {
+            Dueno dueno = i % 2 == 0 ? compartido : dueno(i + 1);
+            mascotaRepository.save(new Mascota(null, "Buddy", LocalDate.of(2020, 1, 1).plusDays(i), 1, "CHIP" + i,
+                    "Macho", dueno, varias));
+        }
+        razaCatalogo.recargar();
+        especieCatalogo.recargar();
+    }
+
+    // Sentencias que ejecutó esta petición, según el summary del endpoint
+    private double sentencias(String uri, String patron) throws Exception {
+        DistributionSummary resumen = registry.find("sql.peticion.sentencias").tag("endpoint", "GET " + patron).summary();
+        double antes = resumen != null ? resumen.totalAmount() : 0;
+        long peticionesAntes = resumen != null ? resumen.count() : 0;
+
+        mockMvc.perform(get(uri).header("Authorization", "Bearer prueba")).andExpect(status().isOk());
+
+        resumen = registry.get("sql.peticion.sentencias").tag("endpoint", "GET " + patron).summary();
+        assertThat(resumen.count()).isEqualTo(peticionesAntes + 1);
+        return resumen.totalAmount() - antes;
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "/api/mascotas/nombre/{nombre},          nombre, 1",
+            "/api/mascotas/dueno/{duenoId},          dueno,  2",
+            "/api/mascotas/raza/{razaId},            raza,   1",
+            "/api/mascotas/sexo/{genero},            genero, 1",
+            "/api/mascotas/nacidas-antes/{fecha},    antes,  1"
+    })
+    @DisplayName("Cada listado debería ejecutar las mismas sentencias con una fila que con muchas")
+    void listados_shouldNotGrowWithRows(String patron, String filtro, int esperadas) throws Exception {
+        String[] valores = switch (filtro) {
+            case "nombre" -> new String[] {"Sola", "Buddy"};
+            case "dueno" -> new String[] {duenoUna.toString(), duenoVarias.toString()};
+            case "raza" -> new String[] {razaUna.toString(), razaVarias.toString()};
+            case "genero" -> new String[] {"Hembra", "Macho"};
+            default -> new String[] {"2015-01-01", "2030-01-01"};
+        };
+        String variable = patron.substring(patron.lastIndexOf('{'));
+
+        double conUna = sentencias(patron.replace(variable, valores[0]), patron);
+        double conMuchas = sentencias(patron.replace(variable, valores[1]), patron);
+
+        // La existencia del dueño se comprueba con una sentencia aparte; la raza sale del catálogo
+        assertThat(conUna).isEqualTo(esperadas);
+        assertThat(conMuchas).isEqualTo(esperadas);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "/api/mascotas,                /api/mascotas",
+            "/api/mascotas?limit=10,       /api/mascotas",
+            "/api/mascotas/nacidas-despues/2015-01-01, /api/mascotas/nacidas-despues/{fecha}"
+    })
+    @DisplayName("Los listados completos y paginados deberían ejecutar una sola sentencia")
+    void listadosCompletos_shouldUseSingleStatement(String uri, String patron) throws Exception {
+        assertThat(sentencias(uri, patron)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,101 @@
+package microvetcare.microvetcare.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microvetcare.microvetcare.observabilidad.InspectorSqlListener;
+import microvetcare.microvetcare.observabilidad.SentenciasPorPeticionFilter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SentenciasPorPeticionFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private InspectorSqlListener listener;
+    private SentenciasPorPeticionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("registry", registry);
+        // Umbral alto: ninguna sentencia de estos tests cuenta como lenta
+        listener = new InspectorSqlListener(60_000, beanFactory.getBeanProvider(MeterRegistry.class));
+        filter = new SentenciasPorPeticionFilter(registry, 3, Map.of("POST /api/duenos/import", 0));
+    }
+
+    private void ejecutar(int sentencias) {
+        for (int i = 0; i < sentencias; i++) {
+            List<QueryInfo> consulta = List.of(new QueryInfo("select * from mascota where id_mascota = ?"));
+            listener.beforeQuery(new ExecutionInfo(), consulta);
+            listener.afterQuery(new ExecutionInfo(), consulta);
+        }
+    }
+
+    // Simula la petición: DispatcherServlet deja el patrón del endpoint y el servicio ejecuta las sentencias
+    private void peticion(String metodo, String uri, String patron, int sentencias) throws Exception {
+        filter.doFilter(new MockHttpServletRequest(metodo, uri), new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, patron);
+            ejecutar(sentencias);
+        });
+    }
+
+    @Test
+    @DisplayName("Debería publicar las sentencias de cada petición por endpoint, sin contar las de otras")
+    void doFilter_shouldRecordStatementsPerEndpoint() throws Exception {
+        // When
+        peticion("GET", "/api/mascotas/1", "/api/mascotas/{id}", 2);
+        ejecutar(5); // fuera de una petición: no se suma a ninguna
+        peticion("GET", "/api/mascotas/2", "/api/mascotas/{id}", 1);
+
+        // Then
+        var sentencias = registry.get("sql.peticion.sentencias").tag("endpoint", "GET /api/mascotas/{id}").summary();
+        assertThat(sentencias.count()).isEqualTo(2);
+        assertThat(sentencias.totalAmount()).isEqualTo(3);
+        assertThat(sentencias.max()).isEqualTo(2);
+        assertThat(registry.get("sql.peticion.tiempo").tag("endpoint", "GET /api/mascotas/{id}").timer().count()).isEqualTo(2);
+        assertThat(registry.find("sql.presupuesto.excedido").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debería contar la petición que supera el presupuesto de sentencias")
+    void doFilter_shouldFlagRequestsOverBudget() throws Exception {
+        // When: un N+1 sobre 10 mascotas
+        peticion("GET", "/api/duenos", "/api/duenos", 11);
+
+        // Then
+        assertThat(registry.get("sql.presupuesto.excedido").tag("endpoint", "GET /api/duenos").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un presupuesto 0 por endpoint debería desactivar el aviso")
+    void doFilter_shouldSkipBudget_whenEndpointBudgetIsZero() throws Exception {
+        // When
+        peticion("POST", "/api/duenos/import", "/api/duenos/import", 500);
+
+        // Then
+        assertThat(registry.find("sql.presupuesto.excedido").counter()).isNull();
+        assertThat(registry.get("sql.peticion.sentencias").tag("endpoint", "POST /api/duenos/import").summary().totalAmount())
+                .isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("El SQL registrado no debería incluir literales de texto")
+    void redactar_shouldHideStringLiterals() {
+        String sql = InspectorSqlListener.redactar(List.of(
+                new QueryInfo("select * from dueno where rut = '12345678-9' and email = 'o''brien@vetcare.cl' and id = ?")));
+
+        assertThat(sql).isEqualTo("select * from dueno where rut = '?' and email = '?' and id = ?");
+    }
+}
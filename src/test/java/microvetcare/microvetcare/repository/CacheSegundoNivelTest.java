@@ -0,0 +1,106 @@
+package microvetcare.microvetcare.repository;
+
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.especie.repository.EspecieRepository;
+import microvetcare.microvetcare.raza.entity.Raza;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica la caché de segundo nivel y la caché de consultas con la configuración de application.properties.
+ * Sin transacción envolvente: cada llamada al repositorio confirma la suya, igual que en los servicios,
+ * y así las escrituras READ_WRITE llegan a la caché.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CacheSegundoNivelTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DuenoRepository duenoRepository;
+
+    @Autowired
+    private RazaRepository razaRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    private Statistics statistics;
+    private Dueno dueno;
+    private Raza raza;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        dueno = duenoRepository.save(new Dueno("12345678-9", "Juan", "Perez", "Calle Falsa 123", null, "juan.perez@vetcare.cl", true));
+        Especie especie = especieRepository.save(new Especie(null, "Canis familiaris", "Perro", 1));
+        raza = razaRepository.save(new Raza("Labrador", "A", especie));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        razaRepository.deleteAll();
+        especieRepository.deleteAll();
+        duenoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("findById debería resolverse desde la caché L2 sin ir a la base de datos")
+    void findById_shouldHitSecondLevelCache() {
+        // Los INSERT confirmados en setUp ya dejaron las entidades en la caché
+        assertThat(duenoRepository.findById(dueno.getId())).map(Dueno::getRut).contains("12345678-9");
+        assertThat(razaRepository.findById(raza.getId())).map(Raza::getNombre).contains("Labrador");
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findByRut y findByEmail deberían ir a la base de datos solo la primera vez")
+    void findByRutYEmail_shouldHitQueryCache() {
+        assertThat(duenoRepository.findByRut("12345678-9")).isPresent();
+        assertThat(duenoRepository.findByEmail("juan.perez@vetcare.cl")).isPresent();
+        long sentencias = statistics.getPrepareStatementCount();
+
+        assertThat(duenoRepository.findByRut("12345678-9")).map(Dueno::getNombre).contains("Juan");
+        assertThat(duenoRepository.findByEmail("juan.perez@vetcare.cl")).map(Dueno::getNombre).contains("Juan");
+
+        assertThat(sentencias).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(sentencias);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Una escritura en la tabla debería invalidar los resultados cacheados de findByNombre")
+    void findByNombre_shouldBeInvalidatedAfterWrite() {
+        assertThat(razaRepository.findByNombre("Labrador")).isPresent();
+
+        raza.setNombre("Labrador Retriever");
+        razaRepository.save(raza);
+        statistics.clear();
+
+        assertThat(razaRepository.findByNombre("Labrador")).isEmpty();
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(razaRepository.findByNombre("Labrador Retriever")).isPresent();
+    }
+}
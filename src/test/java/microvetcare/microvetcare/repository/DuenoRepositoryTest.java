@@ -0,0 +1,101 @@
+package microvetcare.microvetcare.repository;
+
+import microvetcare.microvetcare.dueno.DTO.DuenoDTO;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.service.DuenoServiceImpl;
+import microvetcare.microvetcare.dueno.service.FiltroClavesDueno;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.mascota.entity.Mascota;
+import microvetcare.microvetcare.raza.entity.Raza;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que el listado de dueños use siempre dos consultas, sin importar cuántos dueños haya.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({DuenoServiceImpl.class, FiltroClavesDueno.class, SimpleMeterRegistry.class})
+public class DuenoRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DuenoServiceImpl duenoService;
+
+    @Autowired
+    private DuenoRepository duenoRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Cada dueño tiene dos mascotas
+    private void crearDuenos(int cantidad) {
+        Especie especie = entityManager.persist(new Especie(null, "Felino", "Gato", 1));
+        Raza raza = entityManager.persist(new Raza("Siames", "A", especie));
+        for (int i = 1; i <= cantidad; i++) {
+            Dueno dueno = entityManager.persist(new Dueno(String.format("%08d-%d", i, i % 10), "Nombre" + i, "Apellido" + i,
+                    "Calle " + i, null, "dueno" + i + "@vetcare.cl", true));
+            entityManager.persist(new Mascota(null, "Michi" + i, LocalDate.of(2021, 1, 1), 1, "CHIP-A" + i, "Hembra", dueno, raza));
+            entityManager.persist(new Mascota(null, "Tom" + i, LocalDate.of(2022, 1, 1), 1, "CHIP-B" + i, "Macho", dueno, raza));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @ParameterizedTest(name = "{0} dueños")
+    @ValueSource(ints = {1, 25})
+    @DisplayName("findAllDuenos debería usar dos sentencias sin importar la cantidad de dueños")
+    void findAllDuenos_shouldUseTwoStatements(int cantidad) {
+        crearDuenos(cantidad);
+
+        List<DuenoDTO> duenos = duenoService.findAllDuenos();
+
+        assertThat(duenos).hasSize(cantidad);
+        assertThat(duenos).allSatisfy(dueno -> assertThat(dueno.getMascotaIds()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} dueños")
+    @ValueSource(ints = {1, 25})
+    @DisplayName("Los IDs de mascotas agrupados deberían coincidir con la colección de cada dueño")
+    void findAllMascotaIds_shouldMatchEntityCollections(int cantidad) {
+        crearDuenos(cantidad);
+
+        List<DuenoDTO> duenos = duenoService.findAllDuenos();
+
+        for (DuenoDTO dueno : duenos) {
+            List<Long> esperados = duenoRepository.findById(dueno.getId()).orElseThrow()
+                    .getMascotas().stream().map(Mascota::getId).toList();
+            assertThat(dueno.getMascotaIds()).containsExactlyInAnyOrderElementsOf(esperados);
+        }
+    }
+}
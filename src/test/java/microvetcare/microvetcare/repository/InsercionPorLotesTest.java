@@ -0,0 +1,71 @@
+package microvetcare.microvetcare.repository;
+
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.mascota.entity.Mascota;
+import microvetcare.microvetcare.raza.entity.Raza;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que la carga masiva de dueños y mascotas viaje en lotes JDBC: con IDs por secuencia
+ * (pooled-lo, bloques de 50) y hibernate.jdbc.batch_size=50, la cantidad de sentencias preparadas
+ * depende del número de lotes y no del número de filas.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class InsercionPorLotesTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InsercionPorLotesTest.class);
+
+    private static final int DUENOS = 1000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Insertar dueños y mascotas debería usar una sentencia por lote y no una por fila")
+    void insertarDuenosYMascotas_shouldBeBatched() {
+        // Given
+        Especie especie = entityManager.persist(new Especie(null, "Canis familiaris", "Perro", 1));
+        Raza raza = entityManager.persist(new Raza("Labrador", "A", especie));
+        entityManager.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When: dueños y mascotas intercalados, como en una importación real; order_inserts los agrupa
+        long inicio = System.nanoTime();
+        for (int i = 1; i <= DUENOS; i++) {
+            Dueno dueno = entityManager.persist(new Dueno(String.format("%08d-%d", i, i % 10), "Nombre" + i, "Apellido" + i,
+                    "Calle " + i, null, "dueno" + i + "@vetcare.cl", true));
+            entityManager.persist(new Mascota(null, "Mascota" + i, LocalDate.of(2020, 1, 1), 1, "CHIP" + i, "Macho", dueno, raza));
+        }
+        entityManager.flush();
+        long nanos = System.nanoTime() - inicio;
+
+        // Then: 2 x 1000 filas = 40 lotes de INSERT + 40 llamadas a las secuencias
+        int filas = 2 * DUENOS;
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(filas);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2L * filas / 50 + 2);
+        log.info("{} filas insertadas en {} ms ({} filas/s, {} sentencias preparadas)", filas, nanos / 1_000_000,
+                filas * 1_000_000_000L / nanos, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,115 @@
+package microvetcare.microvetcare.repository;
+
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+import microvetcare.microvetcare.mascota.entity.Mascota;
+import microvetcare.microvetcare.mascota.repository.MascotaRepository;
+import microvetcare.microvetcare.raza.entity.Raza;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que las consultas de mascotas no generen N+1: la cantidad de sentencias
+ * por llamada debe ser la misma con 1 fila que con muchas. El conteo por petición HTTP
+ * está en SentenciasPorEndpointMascotaTest.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class MascotaRepositoryTest {
+
+    private static final LocalDate FECHA_BASE = LocalDate.of(2020, 1, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    private Statistics statistics;
+    private Dueno primerDueno;
+    private Raza raza;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Las mascotas impares tienen dueño propio y las pares comparten el primero:
+    // así un N+1 se notaría en el conteo y findDTOByDuenoId también devuelve varias filas
+    private void crearMascotas(int cantidad) {
+        Especie especie = entityManager.persist(new Especie(null, "Canino", "Perro", 1));
+        raza = entityManager.persist(new Raza("Labrador", "A", especie));
+        for (int i = 1; i <= cantidad; i++) {
+            Dueno dueno = entityManager.persist(new Dueno(String.format("%08d-%d", i, i % 10), "Nombre" + i, "Apellido" + i,
+                    "Calle " + i, null, "dueno" + i + "@vetcare.cl", true));
+            if (primerDueno == null) {
+                primerDueno = dueno;
+            }
+            Dueno duenoMascota = i % 2 == 0 ? primerDueno : dueno;
+            entityManager.persist(new Mascota(null, "Buddy", FECHA_BASE.plusDays(i), 1, "CHIP" + i, "Macho", duenoMascota, raza));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private long sentencias(Supplier<List<MascotaDTO>> consulta) {
+        List<MascotaDTO> mascotas = consulta.get();
+        assertThat(mascotas).isNotEmpty();
+        assertThat(mascotas).extracting(MascotaDTO::getNombreRaza).containsOnly("Labrador");
+        return statistics.getPrepareStatementCount();
+    }
+
+    @ParameterizedTest(name = "{0} mascotas")
+    @ValueSource(ints = {1, 25})
+    @DisplayName("Cada proyección que usa MascotaServiceImpl debería usar una sola sentencia")
+    void findDTOFinders_shouldUseSingleStatement(int cantidad) {
+        crearMascotas(cantidad);
+        List<Supplier<List<MascotaDTO>>> consultas = List.of(
+                () -> mascotaRepository.findAllDTO(),
+                () -> mascotaRepository.findDTOByDuenoId(primerDueno.getId()),
+                () -> mascotaRepository.findDTOByRazaId(raza.getId()),
+                () -> mascotaRepository.findDTOByGenero("Macho"),
+                () -> mascotaRepository.findDTOByFechaNacimientoAfter(FECHA_BASE),
+                () -> mascotaRepository.findDTOByFechaNacimientoBefore(FECHA_BASE.plusYears(1)));
+        for (Supplier<List<MascotaDTO>> consulta : consultas) {
+            statistics.clear();
+            assertThat(sentencias(consulta)).isEqualTo(1);
+        }
+    }
+
+    @ParameterizedTest(name = "{0} mascotas")
+    @ValueSource(ints = {1, 25})
+    @DisplayName("Las proyecciones a DTO deberían usar una sola sentencia")
+    void findDTO_shouldUseSingleStatement(int cantidad) {
+        crearMascotas(cantidad);
+
+        List<MascotaDTO> mascotas = mascotaRepository.findDTOByNombre("Buddy");
+
+        assertThat(mascotas).hasSize(cantidad);
+        assertThat(mascotas).extracting(MascotaDTO::getNombreDueno).contains("Nombre1 Apellido1");
+        assertThat(mascotas).extracting(MascotaDTO::getNombreRaza).containsOnly("Labrador");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,256 @@
+package microvetcare.microvetcare.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import microvetcare.microvetcare.dueno.DTO.DuenoDTO;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.service.DuenoServiceImpl;
+import microvetcare.microvetcare.dueno.service.FiltroClavesDueno;
+import microvetcare.microvetcare.especie.DTO.EspecieDTO;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.especie.repository.EspecieRepository;
+import microvetcare.microvetcare.especie.service.EspecieCatalogo;
+import microvetcare.microvetcare.especie.service.EspecieServiceImpl;
+import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+import microvetcare.microvetcare.mascota.entity.Mascota;
+import microvetcare.microvetcare.mascota.repository.MascotaRepository;
+import microvetcare.microvetcare.mascota.service.MascotaServiceImpl;
+import microvetcare.microvetcare.raza.DTO.RazaDTO;
+import microvetcare.microvetcare.raza.entity.Raza;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
+import microvetcare.microvetcare.raza.service.RazaServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Con open-in-view desactivado el controlador recibe lo que devuelve el servicio y lo serializa sin sesión
+ * abierta. Aquí cada método de los servicios se llama igual, sin transacción envolvente, y su resultado se
+ * pasa por Jackson: si algún DTO dependiera de una asociación lazy, falla con LazyInitializationException.
+ * Usa el pool Hikari real (sobre H2) para comprobar cuándo vuelve la conexión. Los dueños se siembran
+ * por el repositorio, sin pasar por FiltroClavesDueno, así que el filtro de Bloom va apagado.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sin-open-in-view;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "duenos.filtro-bloom.habilitado=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DuenoServiceImpl.class, MascotaServiceImpl.class, RazaServiceImpl.class, EspecieServiceImpl.class,
+        RazaCatalogo.class, EspecieCatalogo.class, FiltroClavesDueno.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SinOpenInViewTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DuenoServiceImpl duenoService;
+
+    @Autowired
+    private MascotaServiceImpl mascotaService;
+
+    @Autowired
+    private RazaServiceImpl razaService;
+
+    @Autowired
+    private EspecieServiceImpl especieService;
+
+    @Autowired
+    private RazaCatalogo razaCatalogo;
+
+    @Autowired
+    private EspecieCatalogo especieCatalogo;
+
+    @Autowired
+    private DuenoRepository duenoRepository;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private RazaRepository razaRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    private Dueno dueno;
+    private Especie especie;
+    private Raza raza;
+    private Mascota mascota;
+
+    @BeforeEach
+    void setUp() {
+        dueno = duenoRepository.save(new Dueno("12345678-9", "Juan", "Perez", "Calle Falsa 123", null, "juan@vetcare.cl", true));
+        especie = especieRepository.save(new Especie(null, "Canis familiaris", "Perro", 1));
+        raza = razaRepository.save(new Raza("Labrador", "A", especie));
+        mascota = mascotaRepository.save(new Mascota(null, "Buddy", LocalDate.of(2020, 1, 1), 1, "CHIP1", "Macho", dueno, raza));
+        razaCatalogo.recargar();
+        especieCatalogo.recargar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mascotaRepository.deleteAll();
+        razaRepository.deleteAll();
+        especieRepository.deleteAll();
+        duenoRepository.deleteAll();
+    }
+
+    // Lo mismo que hace el controlador con el resultado del servicio
+    private String serializar(Object resultado) throws JsonProcessingException {
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+        return objectMapper.writeValueAsString(resultado);
+    }
+
+    private int conexionesEnUso() throws SQLException {
+        return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections();
+    }
+
+    @Test
+    @DisplayName("Tocar una asociación lazy fuera de una transacción debería fallar (la prueba detecta el problema)")
+    void lazyAssociation_shouldFailOutsideTransaction() {
+        Mascota sinSesion = mascotaRepository.findById(mascota.getId()).orElseThrow();
+
+        assertThrows(LazyInitializationException.class, () -> sinSesion.getDueno().getNombre());
+    }
+
+    @Test
+    @DisplayName("Los servicios de dueños deberían devolver DTO completos sin sesión abierta")
+    void duenoService_shouldReturnCompleteDTOs() throws Exception {
+        assertThat(serializar(duenoService.findAllDuenos())).contains("12345678-9");
+        DuenoDTO porId = duenoService.findDuenoById(dueno.getId()).orElseThrow();
+        assertThat(porId.getMascotaIds()).containsExactly(mascota.getId());
+        assertThat(serializar(porId)).contains("juan@vetcare.cl");
+        assertThat(serializar(duenoService.findDuenoByRut("12345678-9"))).contains("Perez");
+        assertThat(serializar(duenoService.findDuenoByEmail("juan@vetcare.cl"))).contains("Perez");
+
+        DuenoDTO creado = duenoService.saveDueno(new DuenoDTO(null, "22222222-2", "Maria", "Gonzalez", null, null, "maria@vetcare.cl", true));
+        assertThat(creado.getMascotaIds()).isEmpty();
+        assertThat(serializar(creado)).contains("Maria");
+
+        DuenoDTO actualizado = duenoService.updateDueno(dueno.getId(),
+                new DuenoDTO(null, null, "Juan Carlos", null, null, null, null, null));
+        assertThat(actualizado.getMascotaIds()).containsExactly(mascota.getId());
+        assertThat(serializar(actualizado)).contains("Juan Carlos");
+    }
+
+    @Test
+    @DisplayName("Los servicios de mascotas deberían devolver DTO completos sin sesión abierta")
+    void mascotaService_shouldReturnCompleteDTOs() throws Exception {
+        MascotaDTO porId = mascotaService.findMascotaById(mascota.getId()).orElseThrow();
+        assertThat(porId.getNombreDueno()).isEqualTo("Juan Perez");
+        assertThat(porId.getNombreRaza()).isEqualTo("Labrador");
+        assertThat(serializar(porId)).contains("Buddy");
+
+        assertThat(serializar(mascotaService.findAllMascotas())).contains("Juan Perez");
+        assertThat(serializar(mascotaService.findMascotasPage(null, 10))).contains("Labrador");
+        assertThat(serializar(mascotaService.findMascotasByNombre("Buddy"))).contains("Labrador");
+        assertThat(serializar(mascotaService.findMascotasByDuenoId(dueno.getId()))).contains("Labrador");
+        assertThat(serializar(mascotaService.findMascotasByRazaId(raza.getId()))).contains("Juan Perez");
+        assertThat(serializar(mascotaService.findMascotasByGenero("Macho"))).contains("Buddy");
+        assertThat(serializar(mascotaService.findMascotasBornAfter(LocalDate.of(2019, 1, 1)))).contains("Buddy");
+        assertThat(serializar(mascotaService.findMascotasBornBefore(LocalDate.of(2021, 1, 1)))).contains("Buddy");
+
+        List<MascotaDTO> exportadas = new ArrayList<>();
+        mascotaService.streamAllMascotas(exportadas::add);
+        assertThat(serializar(exportadas)).contains("Juan Perez", "Labrador");
+
+        MascotaDTO nueva = new MascotaDTO(null, "Luna", LocalDate.of(2021, 5, 1), 1, "CHIP2", "Hembra", dueno.getId(), raza.getId());
+        MascotaDTO creada = mascotaService.saveMascota(nueva, dueno.getId(), raza.getId());
+        assertThat(creada.getNombreDueno()).isEqualTo("Juan Perez");
+        assertThat(creada.getNombreRaza()).isEqualTo("Labrador");
+
+        MascotaDTO editada = mascotaService.updateMascota(creada.getId(), nueva, dueno.getId(), raza.getId());
+        assertThat(serializar(editada)).contains("Juan Perez", "Labrador");
+
+        MascotaDTO enLote = new MascotaDTO(null, "Toby", LocalDate.of(2022, 3, 1), 1, "CHIP3", "Macho", dueno.getId(), raza.getId());
+        assertThat(serializar(mascotaService.saveMascotas(List.of(enLote)))).contains("Juan Perez", "Labrador");
+    }
+
+    @Test
+    @DisplayName("Los servicios de razas y especies deberían devolver DTO completos sin sesión abierta")
+    void catalogoServices_shouldReturnCompleteDTOs() throws Exception {
+        assertThat(serializar(razaService.findAllRazas())).contains("Labrador");
+        assertThat(razaService.findRazaById(raza.getId()).orElseThrow().getEspecieId()).isEqualTo(especie.getId());
+        assertThat(serializar(razaService.findRazaByNombre("Labrador"))).contains("Labrador");
+        assertThat(serializar(razaService.findRazasByEspecieId(especie.getId()))).contains("Labrador");
+
+        RazaDTO creada = razaService.saveRaza(new RazaDTO(null, "Beagle", "A", especie.getId()));
+        assertThat(creada.getEspecieId()).isEqualTo(especie.getId());
+        assertThat(serializar(razaService.updateRaza(creada.getId(), new RazaDTO(null, "Beagle Harrier", "A", especie.getId()))))
+                .contains("Beagle Harrier");
+
+        assertThat(serializar(especieService.findAllEspecies())).contains("Perro");
+        assertThat(serializar(especieService.findEspecieById(especie.getId()))).contains("Perro");
+        assertThat(serializar(especieService.findEspecieByNombre("Perro"))).contains("Canis familiaris");
+
+        EspecieDTO gato = especieService.saveEspecie(new EspecieDTO(null, "Felis catus", "Gato", 1));
+        assertThat(serializar(especieService.updateEspecie(gato.getId(), new EspecieDTO(null, null, "Gato domestico", null))))
+                .contains("Gato domestico");
+    }
+
+    @Test
+    @DisplayName("Sin open-in-view la conexión debería volver al pool apenas termina el servicio")
+    void connection_shouldBeReleasedWhenServiceReturns() throws Exception {
+        List<MascotaDTO> mascotas = mascotaService.findAllMascotas();
+
+        // Mientras se serializa la respuesta no hay ninguna conexión tomada
+        assertThat(conexionesEnUso()).isZero();
+        assertThat(serializar(mascotas)).contains("Buddy");
+    }
+
+    @Test
+    @DisplayName("Con un EntityManager abierto por la petición (open-in-view) la conexión queda tomada hasta cerrarlo")
+    void openInView_shouldHoldConnectionUntilViewCloses() throws Exception {
+        // Lo mismo que hace OpenEntityManagerInViewInterceptor al empezar y terminar la petición
+        EntityManager porPeticion = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(porPeticion));
+        try {
+            List<MascotaDTO> mascotas = mascotaService.findAllMascotas();
+
+            assertThat(conexionesEnUso()).isEqualTo(1);
+            assertThat(serializar(mascotas)).contains("Buddy");
+            assertThat(conexionesEnUso()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(porPeticion);
+        }
+        assertThat(conexionesEnUso()).isZero();
+    }
+}
@@ -0,0 +1,100 @@
+package microvetcare.microvetcare.repository;
+
+import microvetcare.microvetcare.dueno.DTO.DuenoDTO;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.service.DuenoServiceImpl;
+import microvetcare.microvetcare.dueno.service.FiltroClavesDueno;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica que el alta y la edición de dueños dejen la unicidad de RUT y email a las restricciones
+ * de la tabla y traduzcan la violación al mismo 400 de siempre.
+ * Sin transacción envolvente, para que la violación revierta solo la transacción del servicio.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({DuenoServiceImpl.class, FiltroClavesDueno.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UnicidadDuenoTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DuenoServiceImpl duenoService;
+
+    @Autowired
+    private DuenoRepository duenoRepository;
+
+    private Statistics statistics;
+    private Dueno existente;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // También reserva el primer bloque de IDs de la secuencia, así el alta del test no la consulta
+        existente = duenoRepository.save(new Dueno("11111111-1", "Juan", "Perez", null, null, "juan@vetcare.cl", true));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        duenoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("saveDueno debería crear el dueño con una sola sentencia")
+    void saveDueno_shouldUseSingleStatement() {
+        DuenoDTO creado = duenoService.saveDueno(new DuenoDTO(null, "22222222-2", "Maria", "Gonzalez", null, null, "maria@vetcare.cl", true));
+
+        assertThat(creado.getId()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("saveDueno debería traducir la violación de RUT o Email únicos a IllegalArgumentException")
+    void saveDueno_shouldTranslateUniqueViolation() {
+        IllegalArgumentException rut = assertThrows(IllegalArgumentException.class, () -> duenoService.saveDueno(
+                new DuenoDTO(null, "11111111-1", "Otro", "Dueno", null, null, "otro@vetcare.cl", true)));
+        IllegalArgumentException email = assertThrows(IllegalArgumentException.class, () -> duenoService.saveDueno(
+                new DuenoDTO(null, "33333333-3", "Otro", "Dueno", null, null, "juan@vetcare.cl", true)));
+
+        assertThat(rut.getMessage()).isEqualTo("Ya existe un dueño con el RUT: 11111111-1");
+        assertThat(email.getMessage()).isEqualTo("Ya existe un dueño con el Email: juan@vetcare.cl");
+        assertThat(duenoRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("updateDueno debería rechazar el Email de otro dueño y permitir conservar el propio")
+    void updateDueno_shouldTranslateUniqueViolation() {
+        Dueno otro = duenoRepository.save(new Dueno("22222222-2", "Maria", "Gonzalez", null, null, "maria@vetcare.cl", true));
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> duenoService.updateDueno(otro.getId(),
+                new DuenoDTO(otro.getId(), "22222222-2", null, null, null, null, "juan@vetcare.cl", null)));
+        DuenoDTO actualizado = duenoService.updateDueno(existente.getId(),
+                new DuenoDTO(existente.getId(), "11111111-1", "Juan Pablo", null, null, null, "juan@vetcare.cl", null));
+
+        assertThat(thrown.getMessage()).isEqualTo("El Email juan@vetcare.cl ya está registrado para otro dueño.");
+        assertThat(actualizado.getNombre()).isEqualTo("Juan Pablo");
+        assertThat(duenoRepository.findById(otro.getId())).map(Dueno::getEmail).contains("maria@vetcare.cl");
+    }
+}
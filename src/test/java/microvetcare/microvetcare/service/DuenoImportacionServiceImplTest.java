@@ -0,0 +1,207 @@
+package microvetcare.microvetcare.service;
+
+import microvetcare.microvetcare.dueno.DTO.DuenoFilaRechazadaDTO;
+import microvetcare.microvetcare.dueno.DTO.DuenoImportacionResultadoDTO;
+import microvetcare.microvetcare.dueno.entity.Dueno;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository.RutEmail;
+import microvetcare.microvetcare.dueno.service.DuenoImportacionServiceImpl;
+import microvetcare.microvetcare.dueno.service.FiltroClavesDueno;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DuenoImportacionServiceImplTest {
+
+    @Mock
+    private DuenoRepository duenoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private FiltroClavesDueno filtroClavesDueno;
+
+    private DuenoImportacionServiceImpl importacionService;
+
+    @BeforeEach
+    void setUp() {
+        // Bloques de 2 filas para que los casos crucen varios commits
+        importacionService = new DuenoImportacionServiceImpl(duenoRepository, transactionManager, entityManager, filtroClavesDueno, 2, 1000);
+    }
+
+    private static InputStream csv(String... lineas) {
+        return new ByteArrayInputStream(String.join("\n", lineas).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Debería insertar las filas válidas en bloques con una consulta de existentes por bloque")
+    @SuppressWarnings("unchecked")
+    void importarCsv_shouldInsertInChunks() throws IOException {
+        // Given
+        when(duenoRepository.findRutEmailByRutInOrEmailIn(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        // When
+        DuenoImportacionResultadoDTO resultado = importacionService.importarCsv(csv(
+                "rut,nombre,apellido,direccion,telefono,email,estado",
+                "11111111-1,Juan,Perez,Calle Falsa 123,9 1111 1111 11,juan@example.com,si",
+                "22222222-2,Maria,Gonzalez,\"Av. Siempre Viva 456, depto 2\",,maria@example.com,",
+                "33333333-3,Pedro,Soto,,,,no"));
+
+        // Then
+        assertThat(resultado.getFilasLeidas()).isEqualTo(3);
+        assertThat(resultado.getCreados()).isEqualTo(3);
+        assertThat(resultado.getRechazados()).isZero();
+        verify(duenoRepository, times(2)).findRutEmailByRutInOrEmailIn(anyCollection(), anyCollection());
+
+        ArgumentCaptor<List<Dueno>> bloques = ArgumentCaptor.forClass(List.class);
+        verify(duenoRepository, times(2)).saveAllAndFlush(bloques.capture());
+        assertThat(bloques.getAllValues().get(0)).hasSize(2);
+        assertThat(bloques.getAllValues().get(1)).hasSize(1);
+
+        Dueno primero = bloques.getAllValues().get(0).get(0);
+        assertThat(primero.getTelefono()).isEqualTo("91111111111");
+        Dueno segundo = bloques.getAllValues().get(0).get(1);
+        assertThat(segundo.getDireccion()).isEqualTo("Av. Siempre Viva 456, depto 2");
+        assertThat(segundo.getEstado()).isTrue();
+        assertThat(bloques.getAllValues().get(1).get(0).getEstado()).isFalse();
+        verify(entityManager, times(2)).clear();
+        verify(filtroClavesDueno, times(1)).registrar("11111111-1", "juan@example.com");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar filas inválidas, repetidas en el archivo o ya registradas, indicando la línea")
+    void importarCsv_shouldReportRejectedRows() throws IOException {
+        // Given
+        when(duenoRepository.findRutEmailByRutInOrEmailIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(rutEmail("44444444-4", "otro@example.com")));
+
+        // When
+        DuenoImportacionResultadoDTO resultado = importacionService.importarCsv(csv(
+                "rut;nombre;apellido;email",
+                "11111111-1;Juan;Perez;juan@example.com",
+                "11111111-1;Juan;Perez;juan2@example.com",
+                "",
+                "RUT-MALO;Ana;Rojas;ana@example.com",
+                "44444444-4;Luis;Mora;luis@example.com"));
+
+        // Then
+        assertThat(resultado.getFilasLeidas()).isEqualTo(4);
+        assertThat(resultado.getCreados()).isEqualTo(1);
+        assertThat(resultado.getRechazados()).isEqualTo(3);
+        assertThat(resultado.getRechazos()).extracting(DuenoFilaRechazadaDTO::getLinea).containsExactly(3L, 5L, 6L);
+        assertThat(resultado.getRechazos()).extracting(DuenoFilaRechazadaDTO::getMotivo).containsExactly(
+                "RUT repetido en el archivo: 11111111-1",
+                "El RUT no es válido",
+                "Ya existe un dueño con el RUT: 44444444-4");
+        verify(duenoRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @DisplayName("Debería reintentar fila por fila si el bloque choca con un RUT insertado por otro proceso")
+    void importarCsv_shouldRetryRowByRow_whenChunkViolatesUniqueness() throws IOException {
+        // Given
+        when(duenoRepository.findRutEmailByRutInOrEmailIn(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(duenoRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("bloque"))
+                .thenReturn(List.of())
+                .thenThrow(new DataIntegrityViolationException("fila"));
+        when(duenoRepository.existsByRut("22222222-2")).thenReturn(true);
+
+        // When
+        DuenoImportacionResultadoDTO resultado = importacionService.importarCsv(csv(
+                "rut,nombre,apellido",
+                "11111111-1,Juan,Perez",
+                "22222222-2,Maria,Gonzalez"));
+
+        // Then
+        assertThat(resultado.getCreados()).isEqualTo(1);
+        assertThat(resultado.getRechazados()).isEqualTo(1);
+        assertThat(resultado.getRechazos().get(0).getRut()).isEqualTo("22222222-2");
+        assertThat(resultado.getRechazos().get(0).getMotivo()).isEqualTo("Ya existe un dueño con el RUT: 22222222-2");
+        verify(duenoRepository, times(3)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @DisplayName("Una violación que no es de unicidad no debería reportarse como RUT o Email duplicado")
+    void importarCsv_shouldReportGenericReason_whenViolationIsNotUniqueness() throws IOException {
+        // Given
+        when(duenoRepository.findRutEmailByRutInOrEmailIn(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(duenoRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("bloque"))
+                .thenThrow(new DataIntegrityViolationException("ORA-01400: no se puede realizar una inserción NULL"));
+        when(duenoRepository.existsByRut("11111111-1")).thenReturn(false);
+        when(duenoRepository.existsByEmail("juan@vetcare.cl")).thenReturn(false);
+
+        // When
+        DuenoImportacionResultadoDTO resultado = importacionService.importarCsv(csv(
+                "rut,nombre,apellido,email",
+                "11111111-1,Juan,Perez,juan@vetcare.cl"));
+
+        // Then
+        assertThat(resultado.getCreados()).isZero();
+        assertThat(resultado.getRechazos()).extracting(DuenoFilaRechazadaDTO::getMotivo)
+                .containsExactly("La fila no cumple una restricción de la base de datos");
+    }
+
+    @Test
+    @DisplayName("Debería lanzar IllegalArgumentException si falta una columna obligatoria")
+    void importarCsv_shouldThrowException_whenRequiredColumnIsMissing() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> importacionService.importarCsv(csv("rut,nombre", "11111111-1,Juan")));
+
+        assertThat(thrown.getMessage()).isEqualTo("Falta la columna obligatoria 'apellido' en la cabecera del CSV.");
+        verify(duenoRepository, never()).findRutEmailByRutInOrEmailIn(anyCollection(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Debería limitar el detalle de rechazos sin dejar de contarlos")
+    void importarCsv_shouldCapRejectedDetail() throws IOException {
+        // Given
+        importacionService = new DuenoImportacionServiceImpl(duenoRepository, transactionManager, entityManager, filtroClavesDueno, 2, 1);
+
+        // When
+        DuenoImportacionResultadoDTO resultado = importacionService.importarCsv(csv(
+                "rut,nombre,apellido",
+                "1,Juan,Perez",
+                "2,Maria,Gonzalez"));
+
+        // Then
+        assertThat(resultado.getRechazados()).isEqualTo(2);
+        assertThat(resultado.getRechazos()).hasSize(1);
+        verify(duenoRepository, never()).findRutEmailByRutInOrEmailIn(anyCollection(), anyCollection());
+    }
+
+    private static RutEmail rutEmail(String rut, String email) {
+        return new RutEmail() {
+            @Override
+            public String getRut() { return rut; }
+
+            @Override
+            public String getEmail() { return email; }
+        };
+    }
+}
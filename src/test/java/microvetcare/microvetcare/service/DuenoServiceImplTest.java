@@ -3,15 +3,20 @@ package microvetcare.microvetcare.service;
 import microvetcare.microvetcare.dueno.DTO.DuenoDTO;
 import microvetcare.microvetcare.dueno.entity.Dueno;
 import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository.MascotaIdPorDueno;
 import microvetcare.microvetcare.dueno.service.DuenoServiceImpl;
+import microvetcare.microvetcare.dueno.service.FiltroClavesDueno;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -30,6 +35,12 @@ public class DuenoServiceImplTest {
     @Mock
     private DuenoRepository duenoRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private FiltroClavesDueno filtroClavesDueno;
+
     @InjectMocks
     private DuenoServiceImpl duenoService;
 
@@ -45,14 +56,16 @@ public class DuenoServiceImplTest {
 
     // --- Tests para findAllDuenos() ---
     @Test
-    @DisplayName("Debería retornar una lista de todos los dueños")
+    @DisplayName("Debería retornar una lista de todos los dueños con los IDs de sus mascotas")
     void findAllDuenos_shouldReturnAllDuenos() {
         // Given
         Dueno dueno2 = new Dueno("22222222-2", "Maria", "Gonzalez", "Av. Siempre Viva 456", "92222222222", "maria.g@example.com", true);
         dueno2.setId(2L);
-        List<Dueno> duenos = Arrays.asList(dueno1, dueno2);
+        List<DuenoDTO> duenos = Arrays.asList(new DuenoDTO(dueno1), new DuenoDTO(dueno2));
 
-        when(duenoRepository.findAll()).thenReturn(duenos);
+        when(duenoRepository.findAllDTO()).thenReturn(duenos);
+        when(duenoRepository.findAllMascotaIds()).thenReturn(Arrays.asList(
+                mascotaIdPorDueno(1L, 10L), mascotaIdPorDueno(1L, 11L)));
 
         // When
         List<DuenoDTO> foundDuenos = duenoService.findAllDuenos();
@@ -61,15 +74,20 @@ public class DuenoServiceImplTest {
         assertThat(foundDuenos).isNotNull();
         assertThat(foundDuenos.size()).isEqualTo(2);
         assertThat(foundDuenos.get(0).getNombre()).isEqualTo("Juan");
+        assertThat(foundDuenos.get(0).getMascotaIds()).containsExactly(10L, 11L);
         assertThat(foundDuenos.get(1).getRut()).isEqualTo("22222222-2");
-        verify(duenoRepository, times(1)).findAll();
+        assertThat(foundDuenos.get(1).getMascotaIds()).isEmpty();
+        verify(duenoRepository, times(1)).findAllDTO();
+        verify(duenoRepository, times(1)).findAllMascotaIds();
+        verify(duenoRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("Debería retornar una lista vacía si no hay dueños")
     void findAllDuenos_shouldReturnEmptyList_whenNoDuenos() {
         // Given
-        when(duenoRepository.findAll()).thenReturn(List.of());
+        when(duenoRepository.findAllDTO()).thenReturn(List.of());
+        when(duenoRepository.findAllMascotaIds()).thenReturn(List.of());
 
         // When
         List<DuenoDTO> foundDuenos = duenoService.findAllDuenos();
@@ -77,7 +95,7 @@ public class DuenoServiceImplTest {
         // Then
         assertThat(foundDuenos).isNotNull();
         assertThat(foundDuenos).isEmpty();
-        verify(duenoRepository, times(1)).findAll();
+        verify(duenoRepository, times(1)).findAllDTO();
     }
 
     // --- Tests para findDuenoById(Long id) ---
@@ -114,16 +132,14 @@ public class DuenoServiceImplTest {
 
     // --- Tests para saveDueno(DuenoDTO duenoDTO) ---
     @Test
-    @DisplayName("Debería guardar un nuevo dueño exitosamente")
+    @DisplayName("Debería guardar un nuevo dueño con un solo INSERT, sin consultas previas de unicidad")
     void saveDueno_shouldSaveNewDueno() {
         // Given
         DuenoDTO newDuenoDTO = new DuenoDTO(null, "33333333-3", "Carlos", "Silva", "Calle de Prueba 789", "93333333333", "carlos.s@example.com", true);
         Dueno savedDuenoEntity = new Dueno("33333333-3", "Carlos", "Silva", "Calle de Prueba 789", "93333333333", "carlos.s@example.com", true);
         savedDuenoEntity.setId(3L); // Simular que el repositorio asigna un ID
 
-        when(duenoRepository.existsByRut(newDuenoDTO.getRut())).thenReturn(false);
-        when(duenoRepository.existsByEmail(newDuenoDTO.getEmail())).thenReturn(false);
-        when(duenoRepository.save(any(Dueno.class))).thenReturn(savedDuenoEntity);
+        when(duenoRepository.saveAndFlush(any(Dueno.class))).thenReturn(savedDuenoEntity);
 
         // When
         DuenoDTO result = duenoService.saveDueno(newDuenoDTO);
@@ -132,9 +148,13 @@ public class DuenoServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(3L);
         assertThat(result.getNombre()).isEqualTo("Carlos");
-        verify(duenoRepository, times(1)).existsByRut(newDuenoDTO.getRut());
-        verify(duenoRepository, times(1)).existsByEmail(newDuenoDTO.getEmail());
-        verify(duenoRepository, times(1)).save(any(Dueno.class));
+        verify(duenoRepository, times(1)).saveAndFlush(any(Dueno.class));
+        verify(duenoRepository, never()).existsByRut(anyString());
+        verify(duenoRepository, never()).existsByEmail(anyString());
+        // Las claves quedan en el filtro antes del INSERT
+        InOrder orden = inOrder(filtroClavesDueno, duenoRepository);
+        orden.verify(filtroClavesDueno).registrar(newDuenoDTO.getRut(), newDuenoDTO.getEmail());
+        orden.verify(duenoRepository).saveAndFlush(any(Dueno.class));
     }
 
     @Test
@@ -143,7 +163,8 @@ public class DuenoServiceImplTest {
         // Given
         DuenoDTO newDuenoDTO = new DuenoDTO(null, "11111111-1", "Pedro", "Gomez", "Otra Calle 111", "94444444444", "pedro.g@example.com", true);
 
-        // Solo se llama existsByRut después de la validación del ID nulo
+        // La restricción única rechaza el INSERT y solo entonces se consulta qué columna chocó
+        when(duenoRepository.saveAndFlush(any(Dueno.class))).thenThrow(new DataIntegrityViolationException("ORA-00001"));
         when(duenoRepository.existsByRut(newDuenoDTO.getRut())).thenReturn(true);
 
         // When & Then
@@ -154,7 +175,6 @@ public class DuenoServiceImplTest {
         assertThat(thrown.getMessage()).isEqualTo("Ya existe un dueño con el RUT: " + newDuenoDTO.getRut());
         verify(duenoRepository, times(1)).existsByRut(newDuenoDTO.getRut());
         verify(duenoRepository, never()).existsByEmail(anyString()); 
-        verify(duenoRepository, never()).save(any(Dueno.class));
     }
 
     @Test
@@ -163,6 +183,7 @@ public class DuenoServiceImplTest {
         // Given
         DuenoDTO newDuenoDTO = new DuenoDTO(null, "44444444-4", "Ana", "Lopez", "Calle del Sol 222", "95555555555", "juan.perez@example.com", true); // Email duplicado
 
+        when(duenoRepository.saveAndFlush(any(Dueno.class))).thenThrow(new DataIntegrityViolationException("ORA-00001"));
         when(duenoRepository.existsByRut(newDuenoDTO.getRut())).thenReturn(false);
         when(duenoRepository.existsByEmail(newDuenoDTO.getEmail())).thenReturn(true);
 
@@ -174,7 +195,25 @@ public class DuenoServiceImplTest {
         assertThat(thrown.getMessage()).isEqualTo("Ya existe un dueño con el Email: " + newDuenoDTO.getEmail());
         verify(duenoRepository, times(1)).existsByRut(newDuenoDTO.getRut());
         verify(duenoRepository, times(1)).existsByEmail(newDuenoDTO.getEmail());
-        verify(duenoRepository, never()).save(any(Dueno.class));
+    }
+
+    @Test
+    @DisplayName("Debería propagar la violación de integridad si no se debe a RUT ni Email duplicados")
+    void saveDueno_shouldRethrow_whenViolationIsNotUniqueness() {
+        // Given
+        DuenoDTO newDuenoDTO = new DuenoDTO(null, "44444444-4", null, "Lopez", null, null, null, true); // Sin nombre
+
+        DataIntegrityViolationException violacion = new DataIntegrityViolationException("ORA-01400");
+        when(duenoRepository.saveAndFlush(any(Dueno.class))).thenThrow(violacion);
+        when(duenoRepository.existsByRut(newDuenoDTO.getRut())).thenReturn(false);
+
+        // When & Then
+        DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class, () -> {
+            duenoService.saveDueno(newDuenoDTO);
+        });
+
+        assertThat(thrown).isSameAs(violacion);
+        verify(duenoRepository, never()).existsByEmail(anyString());
     }
 
     @Test
@@ -191,10 +230,9 @@ public class DuenoServiceImplTest {
         });
 
         assertThat(thrown.getMessage()).isEqualTo("El ID debe ser nulo para un nuevo dueño.");
-        // --- CORRECCIÓN: existsByRut NO DEBERÍA SER LLAMADO si el ID es nulo ---
+        verify(duenoRepository, never()).saveAndFlush(any(Dueno.class));
         verify(duenoRepository, never()).existsByRut(anyString());
         verify(duenoRepository, never()).existsByEmail(anyString());
-        verify(duenoRepository, never()).save(any(Dueno.class));
     }
 
 
@@ -203,15 +241,12 @@ public class DuenoServiceImplTest {
     @DisplayName("Debería actualizar un dueño existente exitosamente")
     void updateDueno_shouldUpdateExistingDueno() {
         // Given
-        // Mantener el mismo RUT y Email para este test para que no se llamen los findByRut/Email
         DuenoDTO updatedDuenoDTO = new DuenoDTO(dueno1.getId(), "11111111-1", "Juan Actualizado", "Perez", "Nueva Direccion 456", "91111111111", "juan.perez@example.com", false);
         Dueno existingDueno = new Dueno("11111111-1", "Juan", "Perez", "Calle Falsa 123", "91111111111", "juan.perez@example.com", true);
         existingDueno.setId(1L);
 
         when(duenoRepository.findById(dueno1.getId())).thenReturn(Optional.of(existingDueno));
-        // No stubbing for findByRut/findByEmail because RUT and Email in DTO are same as existing dueno
-
-        when(duenoRepository.save(any(Dueno.class))).thenReturn(existingDueno); // Simula la actualización
+        when(duenoRepository.saveAndFlush(any(Dueno.class))).thenReturn(existingDueno); // Simula la actualización
 
         // When
         DuenoDTO result = duenoService.updateDueno(dueno1.getId(), updatedDuenoDTO);
@@ -222,10 +257,11 @@ public class DuenoServiceImplTest {
         assertThat(result.getDireccion()).isEqualTo("Nueva Direccion 456");
         assertThat(result.getEstado()).isFalse();
         verify(duenoRepository, times(1)).findById(dueno1.getId());
-        // --- CORRECCIÓN: No verificar findByRut y findByEmail aquí si los valores no cambian ---
+        verify(duenoRepository, times(1)).saveAndFlush(any(Dueno.class));
+        // La unicidad la valida la base de datos: sin consultas por RUT ni Email
         verify(duenoRepository, never()).findByRut(anyString());
         verify(duenoRepository, never()).findByEmail(anyString());
-        verify(duenoRepository, times(1)).save(any(Dueno.class));
+        verify(duenoRepository, never()).existsByRutAndIdNot(anyString(), anyLong());
     }
 
     @Test
@@ -244,20 +280,18 @@ public class DuenoServiceImplTest {
 
         assertThat(thrown.getMessage()).isEqualTo("Dueño no encontrado con ID: " + nonExistentId);
         verify(duenoRepository, times(1)).findById(nonExistentId);
-        verify(duenoRepository, never()).save(any(Dueno.class));
+        verify(duenoRepository, never()).saveAndFlush(any(Dueno.class));
     }
 
     @Test
     @DisplayName("Debería lanzar IllegalArgumentException si el nuevo RUT ya existe para otro dueño al actualizar")
     void updateDueno_shouldThrowException_whenNewRutExistsForOtherDueno() {
         // Given
-        // Importante: El RUT del updatedDuenoDTO debe ser diferente del dueno1 para que se llame a findByRut
         DuenoDTO updatedDuenoDTO = new DuenoDTO(dueno1.getId(), "22222222-2", "Juan", "Perez", "Calle Falsa 123", "91111111111", "juan.perez@example.com", true);
-        Dueno dueno2 = new Dueno("22222222-2", "Maria", "Gonzalez", "Av. Siempre Viva 456", "92222222222", "maria.g@example.com", true);
-        dueno2.setId(2L); // ID diferente al de dueno1
 
         when(duenoRepository.findById(dueno1.getId())).thenReturn(Optional.of(dueno1));
-        when(duenoRepository.findByRut(updatedDuenoDTO.getRut())).thenReturn(Optional.of(dueno2)); // Simula que el RUT ya existe
+        when(duenoRepository.saveAndFlush(any(Dueno.class))).thenThrow(new DataIntegrityViolationException("ORA-00001"));
+        when(duenoRepository.existsByRutAndIdNot(updatedDuenoDTO.getRut(), dueno1.getId())).thenReturn(true);
 
         // When & Then
         IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
@@ -265,24 +299,20 @@ public class DuenoServiceImplTest {
         });
 
         assertThat(thrown.getMessage()).isEqualTo("El RUT " + updatedDuenoDTO.getRut() + " ya está registrado para otro dueño.");
-        verify(duenoRepository, times(1)).findById(dueno1.getId());
-        verify(duenoRepository, times(1)).findByRut(updatedDuenoDTO.getRut());
-        verify(duenoRepository, never()).findByEmail(anyString()); // Email no cambia, so no findByEmail
-        verify(duenoRepository, never()).save(any(Dueno.class));
+        verify(duenoRepository, times(1)).existsByRutAndIdNot(updatedDuenoDTO.getRut(), dueno1.getId());
+        verify(duenoRepository, never()).existsByEmailAndIdNot(anyString(), anyLong());
     }
 
     @Test
     @DisplayName("Debería lanzar IllegalArgumentException si el nuevo Email ya existe para otro dueño al actualizar")
     void updateDueno_shouldThrowException_whenNewEmailExistsForOtherDueno() {
         // Given
-        // Importante: El Email del updatedDuenoDTO debe ser diferente del dueno1 para que se llame a findByEmail
-        DuenoDTO updatedDuenoDTO = new DuenoDTO(dueno1.getId(), "11111111-1", "Juan", "Perez", "Calle Falsa 123", "91111111111", "maria.g@example.com", true); // Email de dueno2
-        Dueno dueno2 = new Dueno("22222222-2", "Maria", "Gonzalez", "Av. Siempre Viva 456", "92222222222", "maria.g@example.com", true);
-        dueno2.setId(2L);
+        DuenoDTO updatedDuenoDTO = new DuenoDTO(dueno1.getId(), "11111111-1", "Juan", "Perez", "Calle Falsa 123", "91111111111", "maria.g@example.com", true); // Email de otro dueño
 
         when(duenoRepository.findById(dueno1.getId())).thenReturn(Optional.of(dueno1));
-        // Aquí el RUT no cambia, por lo que findByRut no se llama.
-        when(duenoRepository.findByEmail(updatedDuenoDTO.getEmail())).thenReturn(Optional.of(dueno2)); // Email ya existe
+        when(duenoRepository.saveAndFlush(any(Dueno.class))).thenThrow(new DataIntegrityViolationException("ORA-00001"));
+        when(duenoRepository.existsByRutAndIdNot(updatedDuenoDTO.getRut(), dueno1.getId())).thenReturn(false);
+        when(duenoRepository.existsByEmailAndIdNot(updatedDuenoDTO.getEmail(), dueno1.getId())).thenReturn(true);
 
         // When & Then
         IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
@@ -290,10 +320,7 @@ public class DuenoServiceImplTest {
         });
 
         assertThat(thrown.getMessage()).isEqualTo("El Email " + updatedDuenoDTO.getEmail() + " ya está registrado para otro dueño.");
-        verify(duenoRepository, times(1)).findById(dueno1.getId());
-        verify(duenoRepository, never()).findByRut(anyString()); // Se espera que findByRut no se llame si el RUT no cambia
-        verify(duenoRepository, times(1)).findByEmail(updatedDuenoDTO.getEmail());
-        verify(duenoRepository, never()).save(any(Dueno.class));
+        verify(duenoRepository, times(1)).existsByEmailAndIdNot(updatedDuenoDTO.getEmail(), dueno1.getId());
     }
 
     // --- Tests para deleteDueno(Long id) ---
@@ -336,6 +363,7 @@ public class DuenoServiceImplTest {
     void findDuenoByRut_shouldReturnDueno_whenExists() {
         // Given
         String rut = "11111111-1";
+        when(filtroClavesDueno.podriaExistirRut(rut)).thenReturn(true);
         when(duenoRepository.findByRut(rut)).thenReturn(Optional.of(dueno1));
 
         // When
@@ -352,6 +380,7 @@ public class DuenoServiceImplTest {
     void findDuenoByRut_shouldReturnEmptyOptional_whenNotFound() {
         // Given
         String nonExistentRut = "00000000-0";
+        when(filtroClavesDueno.podriaExistirRut(nonExistentRut)).thenReturn(true);
         when(duenoRepository.findByRut(nonExistentRut)).thenReturn(Optional.empty());
 
         // When
@@ -360,6 +389,23 @@ public class DuenoServiceImplTest {
         // Then
         assertThat(foundDueno).isNotPresent();
         verify(duenoRepository, times(1)).findByRut(nonExistentRut);
+        verify(filtroClavesDueno, times(1)).falsoPositivoRut();
+    }
+
+    @Test
+    @DisplayName("No debería consultar la base de datos si el filtro descarta el RUT")
+    void findDuenoByRut_shouldSkipDatabase_whenFilterRejects() {
+        // Given
+        String nonExistentRut = "00000000-0";
+        when(filtroClavesDueno.podriaExistirRut(nonExistentRut)).thenReturn(false);
+
+        // When
+        Optional<DuenoDTO> foundDueno = duenoService.findDuenoByRut(nonExistentRut);
+
+        // Then
+        assertThat(foundDueno).isNotPresent();
+        verify(duenoRepository, never()).findByRut(anyString());
+        verifyNoInteractions(transactionManager);
     }
 
     // --- Tests para findDuenoByEmail(String email) ---
@@ -368,6 +414,7 @@ public class DuenoServiceImplTest {
     void findDuenoByEmail_shouldReturnDueno_whenExists() {
         // Given
         String email = "juan.perez@example.com";
+        when(filtroClavesDueno.podriaExistirEmail(email)).thenReturn(true);
         when(duenoRepository.findByEmail(email)).thenReturn(Optional.of(dueno1));
 
         // When
@@ -384,14 +431,23 @@ public class DuenoServiceImplTest {
     void findDuenoByEmail_shouldReturnEmptyOptional_whenNotFound() {
         // Given
         String nonExistentEmail = "noexist@example.com";
-        when(duenoRepository.findByEmail(nonExistentEmail)).thenReturn(Optional.empty());
+        when(filtroClavesDueno.podriaExistirEmail(nonExistentEmail)).thenReturn(false);
 
         // When
         Optional<DuenoDTO> foundDueno = duenoService.findDuenoByEmail(nonExistentEmail);
 
         // Then
         assertThat(foundDueno).isNotPresent();
-        verify(duenoRepository, times(1)).findByEmail(nonExistentEmail);
+        verify(duenoRepository, never()).findByEmail(anyString());
+    }
+
+    private static MascotaIdPorDueno mascotaIdPorDueno(Long duenoId, Long mascotaId) {
+        return new MascotaIdPorDueno() {
+            @Override
+            public Long getDuenoId() { return duenoId; }
+
+            @Override
+            public Long getMascotaId() { return mascotaId; }
+        };
     }
-    
 }
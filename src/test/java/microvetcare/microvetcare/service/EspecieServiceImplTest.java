@@ -14,15 +14,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import microvetcare.microvetcare.especie.DTO.EspecieDTO;
 import microvetcare.microvetcare.especie.entity.Especie;
 import microvetcare.microvetcare.especie.repository.EspecieRepository;
+import microvetcare.microvetcare.especie.service.EspecieCatalogo;
 import microvetcare.microvetcare.especie.service.EspecieServiceImpl;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
 
 @ExtendWith(MockitoExtension.class) // Habilita Mockito para JUnit 5
 public class EspecieServiceImplTest {
@@ -30,7 +34,10 @@ public class EspecieServiceImplTest {
     @Mock // Crea un mock del repositorio. Cuando EspecieServiceImpl pida un EspecieRepository, se le dará esta simulación.
     private EspecieRepository especieRepository;
 
-    @InjectMocks // Inyecta los mocks creados (como especieRepository) en esta instancia de EspecieServiceImpl.
+    @Mock
+    private RazaRepository razaRepository;
+
+    // Los catálogos son reales pero quedan sin precargar, así que cada lectura llega al repositorio simulado
     private EspecieServiceImpl especieService;
 
     // Métodos auxiliares para crear objetos Especie y EspecieDTO de prueba
@@ -46,8 +53,9 @@ public class EspecieServiceImplTest {
 
     @BeforeEach // Este método se ejecuta antes de cada prueba (@Test)
     void setUp() {
-        // Inicialización de mocks y objetos si es necesario para múltiples pruebas.
-        // En este caso, @Mock y @InjectMocks ya hacen la mayor parte del trabajo.
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        especieService = new EspecieServiceImpl(especieRepository, new EspecieCatalogo(especieRepository, registry),
+                new RazaCatalogo(razaRepository, registry));
     }
 
     // --- Pruebas para findAllEspecies() ---
@@ -0,0 +1,122 @@
+package microvetcare.microvetcare.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microvetcare.microvetcare.cache.FiltroBloom;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository;
+import microvetcare.microvetcare.dueno.repository.DuenoRepository.RutEmail;
+import microvetcare.microvetcare.dueno.service.FiltroClavesDueno;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FiltroClavesDuenoTest {
+
+    @Mock
+    private DuenoRepository duenoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry registry;
+    private FiltroClavesDueno filtro;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filtro = new FiltroClavesDueno(duenoRepository, transactionManager, registry, true, 0.01, 1000);
+    }
+
+    @Test
+    @DisplayName("Sin construir, el filtro debería dejar pasar todas las claves a la base de datos")
+    void podriaExistir_shouldReturnTrue_beforeBuild() {
+        assertThat(filtro.podriaExistirRut("11111111-1")).isTrue();
+        assertThat(filtro.podriaExistirEmail("juan@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debería descartar las claves ausentes tras construirse con una sola lectura")
+    void reconstruir_shouldLoadAllKeysInOneScan() {
+        // Given
+        when(duenoRepository.streamRutEmail()).thenReturn(Stream.of(rutEmail("11111111-1", "juan@example.com"),
+                rutEmail("22222222-2", null)));
+
+        // When
+        filtro.reconstruir();
+
+        // Then
+        assertThat(filtro.podriaExistirRut("11111111-1")).isTrue();
+        assertThat(filtro.podriaExistirRut("22222222-2")).isTrue();
+        assertThat(filtro.podriaExistirEmail("juan@example.com")).isTrue();
+        assertThat(filtro.podriaExistirRut("99999999-9")).isFalse();
+        assertThat(filtro.podriaExistirEmail("nadie@example.com")).isFalse();
+        verify(duenoRepository, times(1)).streamRutEmail();
+        assertThat(registry.get("duenos.filtro.consultas").tag("clave", "rut").tag("resultado", "descartada")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("duenos.filtro.falsos_positivos.tasa").tag("clave", "rut").gauge().value())
+                .isBetween(0.0, 0.01);
+    }
+
+    @Test
+    @DisplayName("Las claves registradas durante la reconstrucción no deberían perderse")
+    void registrar_shouldSurviveRebuild() {
+        // Given: el dueño se registra mientras corre la lectura y su INSERT aún no es visible
+        when(duenoRepository.streamRutEmail()).thenAnswer(invocacion -> {
+            filtro.registrar("33333333-3", "nuevo@example.com");
+            return Stream.of(rutEmail("11111111-1", "juan@example.com"));
+        });
+
+        // When
+        filtro.reconstruir();
+
+        // Then
+        assertThat(filtro.podriaExistirRut("33333333-3")).isTrue();
+        assertThat(filtro.podriaExistirEmail("nuevo@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deshabilitado, el filtro no debería leer la tabla ni descartar claves")
+    void reconstruir_shouldDoNothing_whenDisabled() {
+        filtro = new FiltroClavesDueno(duenoRepository, transactionManager, registry, false, 0.01, 1000);
+
+        filtro.reconstruir();
+
+        assertThat(filtro.podriaExistirRut("99999999-9")).isTrue();
+        verifyNoInteractions(duenoRepository);
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos observada debería quedar cerca de la configurada")
+    void filtroBloom_shouldRespectConfiguredFalsePositiveRate() {
+        FiltroBloom bloom = new FiltroBloom(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloom.agregar(String.format("%08d-%d", i, i % 10)));
+
+        long falsosPositivos = IntStream.range(10_000, 110_000)
+                .filter(i -> bloom.podriaContener(String.format("%08d-%d", i, i % 10)))
+                .count();
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> bloom.podriaContener(String.format("%08d-%d", i, i % 10)))).isTrue();
+        assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+        assertThat(bloom.tasaFalsosPositivosEstimada()).isBetween(0.005, 0.015);
+    }
+
+    private static RutEmail rutEmail(String rut, String email) {
+        return new RutEmail() {
+            @Override
+            public String getRut() { return rut; }
+
+            @Override
+            public String getEmail() { return email; }
+        };
+    }
+}
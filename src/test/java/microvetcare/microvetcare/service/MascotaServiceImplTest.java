@@ -1,14 +1,19 @@
 package microvetcare.microvetcare.service;
 
+import jakarta.persistence.EntityManager;
 import microvetcare.microvetcare.dueno.entity.Dueno;
 import microvetcare.microvetcare.dueno.repository.DuenoRepository;
 import microvetcare.microvetcare.exception.ResourceNotFoundException;
 import microvetcare.microvetcare.mascota.DTO.MascotaDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaLoteResultadoDTO;
+import microvetcare.microvetcare.mascota.DTO.MascotaPageDTO;
 import microvetcare.microvetcare.mascota.entity.Mascota;
 import microvetcare.microvetcare.mascota.repository.MascotaRepository;
 import microvetcare.microvetcare.mascota.service.MascotaServiceImpl;
+import microvetcare.microvetcare.raza.DTO.RazaDTO;
 import microvetcare.microvetcare.raza.entity.Raza;
 import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,15 +21,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 //import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -41,6 +51,12 @@ public class MascotaServiceImplTest {
     @Mock
     private RazaRepository razaRepository;
 
+    @Mock
+    private RazaCatalogo razaCatalogo;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private MascotaServiceImpl mascotaService;
 
@@ -67,10 +83,10 @@ public class MascotaServiceImplTest {
     @DisplayName("Debería retornar una lista de todas las mascotas")
     void findAllMascotas_shouldReturnAllMascotas() {
         // Given
-        Mascota mascota2 = new Mascota(2L, "Lucy", LocalDate.of(2019, 5, 20), 1, "CHIP456", "Hembra", dueno, raza);
-        List<Mascota> mascotas = Arrays.asList(mascota1, mascota2);
+        MascotaDTO mascotaDTO2 = new MascotaDTO(2L, "Lucy", "CHIP456", "Hembra", 1, LocalDate.of(2019, 5, 20),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador");
 
-        when(mascotaRepository.findAllWithDuenoAndRaza()).thenReturn(mascotas);
+        when(mascotaRepository.findAllDTO()).thenReturn(Arrays.asList(mascotaDTO1, mascotaDTO2));
 
         // When
         List<MascotaDTO> foundMascotas = mascotaService.findAllMascotas();
@@ -82,14 +98,15 @@ public class MascotaServiceImplTest {
         assertThat(foundMascotas.get(1).getChip()).isEqualTo("CHIP456");
         assertThat(foundMascotas.get(0).getNombreDueno()).isEqualTo("Juan Perez");
         assertThat(foundMascotas.get(0).getNombreRaza()).isEqualTo("Labrador");
-        verify(mascotaRepository, times(1)).findAllWithDuenoAndRaza();
+        verify(mascotaRepository, times(1)).findAllDTO();
+        verify(mascotaRepository, never()).findAllWithDuenoAndRaza();
     }
 
     @Test
     @DisplayName("Debería retornar una lista vacía si no hay mascotas")
     void findAllMascotas_shouldReturnEmptyList_whenNoMascotas() {
         // Given
-        when(mascotaRepository.findAllWithDuenoAndRaza()).thenReturn(List.of());
+        when(mascotaRepository.findAllDTO()).thenReturn(List.of());
 
         // When
         List<MascotaDTO> foundMascotas = mascotaService.findAllMascotas();
@@ -97,7 +114,72 @@ public class MascotaServiceImplTest {
         // Then
         assertThat(foundMascotas).isNotNull();
         assertThat(foundMascotas).isEmpty();
-        verify(mascotaRepository, times(1)).findAllWithDuenoAndRaza();
+        verify(mascotaRepository, times(1)).findAllDTO();
+    }
+
+    // --- Tests para findMascotasPage(Long after, int limit) ---
+    @Test
+    @DisplayName("Debería retornar una página y el nextCursor cuando hay más mascotas")
+    void findMascotasPage_shouldReturnNextCursor_whenMoreRowsExist() {
+        // Given
+        MascotaDTO mascotaDTO2 = new MascotaDTO(2L, "Lucy", "CHIP456", "Hembra", 1, LocalDate.of(2019, 5, 20),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador");
+        MascotaDTO mascotaDTO3 = new MascotaDTO(3L, "Max", "CHIP789", "Macho", 1, LocalDate.of(2018, 3, 2),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador");
+        when(mascotaRepository.findDTOPage(0L, Limit.of(3))).thenReturn(Arrays.asList(mascotaDTO1, mascotaDTO2, mascotaDTO3));
+
+        // When
+        MascotaPageDTO page = mascotaService.findMascotasPage(0L, 2);
+
+        // Then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getContent().get(1).getNombre()).isEqualTo("Lucy");
+        assertThat(page.getNextCursor()).isEqualTo(2L);
+        verify(mascotaRepository, times(1)).findDTOPage(0L, Limit.of(3));
+        verify(mascotaRepository, never()).findAllDTO();
+    }
+
+    @Test
+    @DisplayName("Debería retornar nextCursor nulo en la última página")
+    void findMascotasPage_shouldReturnNullCursor_onLastPage() {
+        // Given
+        when(mascotaRepository.findDTOPage(1L, Limit.of(3))).thenReturn(List.of());
+
+        // When
+        MascotaPageDTO page = mascotaService.findMascotasPage(1L, 2);
+
+        // Then
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debería lanzar IllegalArgumentException si el limit está fuera de rango")
+    void findMascotasPage_shouldThrowException_whenLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> mascotaService.findMascotasPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> mascotaService.findMascotasPage(null, 501));
+        verify(mascotaRepository, never()).findDTOPage(any(), any());
+    }
+
+    // --- Tests para streamAllMascotas(Consumer<MascotaDTO> consumer) ---
+    @Test
+    @DisplayName("Debería entregar cada mascota al consumidor y desacoplarla del contexto")
+    void streamAllMascotas_shouldConvertAndDetachEachMascota() {
+        // Given
+        Mascota mascota2 = new Mascota(2L, "Lucy", LocalDate.of(2019, 5, 20), 1, "CHIP456", "Hembra", dueno, raza);
+        when(mascotaRepository.streamAllWithDuenoAndRaza()).thenReturn(Stream.of(mascota1, mascota2));
+        List<MascotaDTO> recibidas = new ArrayList<>();
+
+        // When
+        mascotaService.streamAllMascotas(recibidas::add);
+
+        // Then
+        assertThat(recibidas).hasSize(2);
+        assertThat(recibidas.get(0).getNombreDueno()).isEqualTo("Juan Perez");
+        assertThat(recibidas.get(1).getNombre()).isEqualTo("Lucy");
+        verify(entityManager, times(1)).detach(mascota1);
+        verify(entityManager, times(1)).detach(mascota2);
+        verify(mascotaRepository, never()).findAllWithDuenoAndRaza();
     }
 
     // --- Tests para findMascotaById(Long id) ---
@@ -148,7 +230,8 @@ public class MascotaServiceImplTest {
 
 
         when(duenoRepository.findById(dueno.getId())).thenReturn(Optional.of(dueno));
-        when(razaRepository.findById(raza.getId())).thenReturn(Optional.of(raza));
+        when(razaCatalogo.existe(raza.getId())).thenReturn(true);
+        when(razaRepository.getReferenceById(raza.getId())).thenReturn(raza);
         when(mascotaRepository.save(any(Mascota.class))).thenReturn(savedMascotaEntity);
 
         // When
@@ -163,7 +246,8 @@ public class MascotaServiceImplTest {
         assertThat(result.getNombreDueno()).isEqualTo("Juan Perez");
         assertThat(result.getNombreRaza()).isEqualTo("Labrador");
         verify(duenoRepository, times(1)).findById(dueno.getId());
-        verify(razaRepository, times(1)).findById(raza.getId());
+        verify(razaCatalogo, times(1)).existe(raza.getId());
+        verify(razaRepository, never()).findById(anyLong());
         verify(mascotaRepository, times(1)).save(any(Mascota.class));
     }
 
@@ -184,7 +268,7 @@ public class MascotaServiceImplTest {
 
         assertThat(thrown.getMessage()).isEqualTo("Dueño no encontrado con ID: " + nonExistentDuenoId);
         verify(duenoRepository, times(1)).findById(nonExistentDuenoId);
-        verify(razaRepository, never()).findById(anyLong());
+        verify(razaCatalogo, never()).existe(anyLong());
         verify(mascotaRepository, never()).save(any(Mascota.class));
     }
 
@@ -197,7 +281,7 @@ public class MascotaServiceImplTest {
                 dueno.getId(), nonExistentRazaId, null, null);
 
         when(duenoRepository.findById(dueno.getId())).thenReturn(Optional.of(dueno));
-        when(razaRepository.findById(nonExistentRazaId)).thenReturn(Optional.empty());
+        when(razaCatalogo.existe(nonExistentRazaId)).thenReturn(false);
 
         // When & Then
         ResourceNotFoundException thrown = assertThrows(ResourceNotFoundException.class, () -> {
@@ -206,10 +290,102 @@ public class MascotaServiceImplTest {
 
         assertThat(thrown.getMessage()).isEqualTo("Raza no encontrada con ID: " + nonExistentRazaId);
         verify(duenoRepository, times(1)).findById(dueno.getId());
-        verify(razaRepository, times(1)).findById(nonExistentRazaId);
+        verify(razaCatalogo, times(1)).existe(nonExistentRazaId);
         verify(mascotaRepository, never()).save(any(Mascota.class));
     }
 
+    // --- Tests para saveMascotas(List<MascotaDTO> mascotas) ---
+    private MascotaDTO nuevaMascotaDTO(String nombre, Long idDueno, Long idRaza) {
+        return new MascotaDTO(null, nombre, "CHIP-" + nombre, "Macho", 1, LocalDate.of(2024, 1, 10),
+                idDueno, idRaza, null, null);
+    }
+
+    private void simularSaveAll() {
+        AtomicLong secuencia = new AtomicLong(100);
+        when(mascotaRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Mascota> mascotas = invocation.getArgument(0);
+            mascotas.forEach(m -> m.setId(secuencia.incrementAndGet()));
+            return mascotas;
+        });
+    }
+
+    @Test
+    @DisplayName("Debería crear las mascotas válidas y rechazar las inválidas con un resultado por elemento")
+    void saveMascotas_shouldReturnResultPerItem() {
+        // Given
+        List<MascotaDTO> lote = Arrays.asList(
+                nuevaMascotaDTO("Firulais", dueno.getId(), raza.getId()),
+                nuevaMascotaDTO("Sin Dueno", 99L, raza.getId()),
+                nuevaMascotaDTO(null, dueno.getId(), raza.getId()),
+                nuevaMascotaDTO("Sin Raza", dueno.getId(), 98L));
+
+        when(duenoRepository.findAllById(any())).thenReturn(List.of(dueno));
+        when(razaCatalogo.enCache(raza.getId())).thenReturn(Optional.of(new RazaDTO(raza.getId(), "Labrador", "A", 1L)));
+        when(razaCatalogo.enCache(98L)).thenReturn(Optional.empty());
+        when(razaRepository.findAllById(List.of(98L))).thenReturn(List.of());
+        when(duenoRepository.getReferenceById(dueno.getId())).thenReturn(dueno);
+        when(razaRepository.getReferenceById(raza.getId())).thenReturn(raza);
+        simularSaveAll();
+
+        // When
+        List<MascotaLoteResultadoDTO> resultados = mascotaService.saveMascotas(lote);
+
+        // Then
+        assertThat(resultados).hasSize(4);
+        assertThat(resultados).extracting(MascotaLoteResultadoDTO::getIndice).containsExactly(0, 1, 2, 3);
+        assertThat(resultados).extracting(MascotaLoteResultadoDTO::isCreada).containsExactly(true, false, false, false);
+        assertThat(resultados.get(0).getMascota().getId()).isEqualTo(101L);
+        assertThat(resultados.get(0).getMascota().getNombreDueno()).isEqualTo("Juan Perez");
+        assertThat(resultados.get(0).getMascota().getNombreRaza()).isEqualTo("Labrador");
+        assertThat(resultados.get(1).getError()).isEqualTo("Dueño no encontrado con ID: 99");
+        assertThat(resultados.get(2).getError()).startsWith("El nombre es obligatorio");
+        assertThat(resultados.get(3).getError()).isEqualTo("Raza no encontrada con ID: 98");
+        verify(duenoRepository, times(1)).findAllById(any());
+        verify(duenoRepository, never()).findById(anyLong());
+        verify(razaRepository, never()).findById(anyLong());
+        verify(mascotaRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Debería guardar en bloques de 50, vaciando el contexto de persistencia entre bloques")
+    void saveMascotas_shouldPersistInChunks() {
+        // Given
+        List<MascotaDTO> lote = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            lote.add(nuevaMascotaDTO("Cachorro" + i, dueno.getId(), raza.getId()));
+        }
+        when(duenoRepository.findAllById(any())).thenReturn(List.of(dueno));
+        when(razaCatalogo.enCache(raza.getId())).thenReturn(Optional.of(new RazaDTO(raza.getId(), "Labrador", "A", 1L)));
+        when(duenoRepository.getReferenceById(dueno.getId())).thenReturn(dueno);
+        when(razaRepository.getReferenceById(raza.getId())).thenReturn(raza);
+        simularSaveAll();
+
+        // When
+        List<MascotaLoteResultadoDTO> resultados = mascotaService.saveMascotas(lote);
+
+        // Then
+        assertThat(resultados).hasSize(120).allMatch(MascotaLoteResultadoDTO::isCreada);
+        verify(mascotaRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(duenoRepository, times(1)).findAllById(any());
+        verify(razaRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Debería lanzar IllegalArgumentException si el lote supera el máximo permitido")
+    void saveMascotas_shouldThrowException_whenTooManyItems() {
+        // Given
+        List<MascotaDTO> lote = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            lote.add(nuevaMascotaDTO("Cachorro" + i, dueno.getId(), raza.getId()));
+        }
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> mascotaService.saveMascotas(lote));
+        verifyNoInteractions(duenoRepository, razaRepository, mascotaRepository);
+    }
+
     // --- Tests para updateMascota(Long id, MascotaDTO mascotaDTO, Long duenoId, Long razaId) ---
     @Test
     @DisplayName("Debería actualizar una mascota existente exitosamente")
@@ -227,7 +403,8 @@ public class MascotaServiceImplTest {
         when(mascotaRepository.findById(mascotaId)).thenReturn(Optional.of(mascota1));
         // Simulamos que encuentra el nuevo dueño y la nueva raza
         when(duenoRepository.findById(newDueno.getId())).thenReturn(Optional.of(newDueno));
-        when(razaRepository.findById(newRaza.getId())).thenReturn(Optional.of(newRaza));
+        when(razaCatalogo.existe(newRaza.getId())).thenReturn(true);
+        when(razaRepository.getReferenceById(newRaza.getId())).thenReturn(newRaza);
 
         // Simulamos que guarda la mascota actualizada
         when(mascotaRepository.save(any(Mascota.class))).thenReturn(
@@ -251,7 +428,8 @@ public class MascotaServiceImplTest {
 
         verify(mascotaRepository, times(1)).findById(mascotaId);
         verify(duenoRepository, times(1)).findById(newDueno.getId());
-        verify(razaRepository, times(1)).findById(newRaza.getId());
+        verify(razaCatalogo, times(1)).existe(newRaza.getId());
+        verify(razaRepository, never()).findById(anyLong());
         verify(mascotaRepository, times(1)).save(any(Mascota.class));
     }
 
@@ -273,7 +451,7 @@ public class MascotaServiceImplTest {
         assertThat(thrown.getMessage()).isEqualTo("Mascota no encontrada con ID: " + nonExistentMascotaId);
         verify(mascotaRepository, times(1)).findById(nonExistentMascotaId);
         verify(duenoRepository, never()).findById(anyLong());
-        verify(razaRepository, never()).findById(anyLong());
+        verify(razaCatalogo, never()).existe(anyLong());
         verify(mascotaRepository, never()).save(any(Mascota.class));
     }
 
@@ -296,7 +474,7 @@ public class MascotaServiceImplTest {
         assertThat(thrown.getMessage()).isEqualTo("Dueño no encontrado con ID: " + nonExistentDuenoId);
         verify(mascotaRepository, times(1)).findById(mascota1.getId());
         verify(duenoRepository, times(1)).findById(nonExistentDuenoId);
-        verify(razaRepository, never()).findById(anyLong());
+        verify(razaCatalogo, never()).existe(anyLong());
         verify(mascotaRepository, never()).save(any(Mascota.class));
     }
 
@@ -310,7 +488,7 @@ public class MascotaServiceImplTest {
 
         when(mascotaRepository.findById(mascota1.getId())).thenReturn(Optional.of(mascota1));
         when(duenoRepository.findById(dueno.getId())).thenReturn(Optional.of(dueno));
-        when(razaRepository.findById(nonExistentRazaId)).thenReturn(Optional.empty());
+        when(razaCatalogo.existe(nonExistentRazaId)).thenReturn(false);
 
         // When & Then
         ResourceNotFoundException thrown = assertThrows(ResourceNotFoundException.class, () -> {
@@ -320,7 +498,7 @@ public class MascotaServiceImplTest {
         assertThat(thrown.getMessage()).isEqualTo("Raza no encontrada con ID: " + nonExistentRazaId);
         verify(mascotaRepository, times(1)).findById(mascota1.getId());
         verify(duenoRepository, times(1)).findById(dueno.getId());
-        verify(razaRepository, times(1)).findById(nonExistentRazaId);
+        verify(razaCatalogo, times(1)).existe(nonExistentRazaId);
         verify(mascotaRepository, never()).save(any(Mascota.class));
     }
 
@@ -363,10 +541,10 @@ public class MascotaServiceImplTest {
     @DisplayName("Debería retornar mascotas por nombre")
     void findMascotasByNombre_shouldReturnMascotas() {
         // Given
-        Mascota mascota2 = new Mascota(2L, "Buddy", LocalDate.of(2021, 6, 1), 1, "CHIP999", "Macho", dueno, raza);
-        List<Mascota> foundEntities = Arrays.asList(mascota1, mascota2); // Ambos tienen nombre "Buddy"
+        MascotaDTO mascotaDTO2 = new MascotaDTO(2L, "Buddy", "CHIP999", "Macho", 1, LocalDate.of(2021, 6, 1),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador");
 
-        when(mascotaRepository.findByNombre("Buddy")).thenReturn(foundEntities);
+        when(mascotaRepository.findDTOByNombre("Buddy")).thenReturn(Arrays.asList(mascotaDTO1, mascotaDTO2)); // Ambos tienen nombre "Buddy"
 
         // When
         List<MascotaDTO> results = mascotaService.findMascotasByNombre("Buddy");
@@ -375,21 +553,21 @@ public class MascotaServiceImplTest {
         assertThat(results).hasSize(2);
         assertThat(results.get(0).getNombre()).isEqualTo("Buddy");
         assertThat(results.get(1).getNombre()).isEqualTo("Buddy");
-        verify(mascotaRepository, times(1)).findByNombre("Buddy");
+        verify(mascotaRepository, times(1)).findDTOByNombre("Buddy");
     }
 
     @Test
     @DisplayName("Debería retornar una lista vacía si no hay mascotas con ese nombre")
     void findMascotasByNombre_shouldReturnEmptyList_whenNotFound() {
         // Given
-        when(mascotaRepository.findByNombre("NonExistent")).thenReturn(List.of());
+        when(mascotaRepository.findDTOByNombre("NonExistent")).thenReturn(List.of());
 
         // When
         List<MascotaDTO> results = mascotaService.findMascotasByNombre("NonExistent");
 
         // Then
         assertThat(results).isEmpty();
-        verify(mascotaRepository, times(1)).findByNombre("NonExistent");
+        verify(mascotaRepository, times(1)).findDTOByNombre("NonExistent");
     }
 
     // --- Tests para findMascotasByDuenoId(Long duenoId) ---
@@ -397,11 +575,11 @@ public class MascotaServiceImplTest {
     @DisplayName("Debería retornar mascotas por ID de dueño")
     void findMascotasByDuenoId_shouldReturnMascotas() {
         // Given
-        Mascota mascota2 = new Mascota(2L, "Lucy", LocalDate.of(2019, 5, 20), 1, "CHIP456", "Hembra", dueno, raza);
-        List<Mascota> foundEntities = Arrays.asList(mascota1, mascota2);
+        MascotaDTO mascotaDTO2 = new MascotaDTO(2L, "Lucy", "CHIP456", "Hembra", 1, LocalDate.of(2019, 5, 20),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador");
 
         when(duenoRepository.existsById(dueno.getId())).thenReturn(true); // Verificar que el dueño exista
-        when(mascotaRepository.findByDuenoId(dueno.getId())).thenReturn(foundEntities);
+        when(mascotaRepository.findDTOByDuenoId(dueno.getId())).thenReturn(Arrays.asList(mascotaDTO1, mascotaDTO2));
 
         // When
         List<MascotaDTO> results = mascotaService.findMascotasByDuenoId(dueno.getId());
@@ -411,7 +589,7 @@ public class MascotaServiceImplTest {
         assertThat(results.get(0).getIdDueno()).isEqualTo(dueno.getId());
         assertThat(results.get(1).getIdDueno()).isEqualTo(dueno.getId());
         verify(duenoRepository, times(1)).existsById(dueno.getId());
-        verify(mascotaRepository, times(1)).findByDuenoId(dueno.getId());
+        verify(mascotaRepository, times(1)).findDTOByDuenoId(dueno.getId());
     }
 
     @Test
@@ -428,7 +606,7 @@ public class MascotaServiceImplTest {
 
         assertThat(thrown.getMessage()).isEqualTo("Dueño no encontrado con ID: " + nonExistentDuenoId);
         verify(duenoRepository, times(1)).existsById(nonExistentDuenoId);
-        verify(mascotaRepository, never()).findByDuenoId(anyLong());
+        verify(mascotaRepository, never()).findDTOByDuenoId(anyLong());
     }
 
     @Test
@@ -436,7 +614,7 @@ public class MascotaServiceImplTest {
     void findMascotasByDuenoId_shouldReturnEmptyList_whenNoMascotasForDueno() {
         // Given
         when(duenoRepository.existsById(dueno.getId())).thenReturn(true);
-        when(mascotaRepository.findByDuenoId(dueno.getId())).thenReturn(List.of());
+        when(mascotaRepository.findDTOByDuenoId(dueno.getId())).thenReturn(List.of());
 
         // When
         List<MascotaDTO> results = mascotaService.findMascotasByDuenoId(dueno.getId());
@@ -444,7 +622,7 @@ public class MascotaServiceImplTest {
         // Then
         assertThat(results).isEmpty();
         verify(duenoRepository, times(1)).existsById(dueno.getId());
-        verify(mascotaRepository, times(1)).findByDuenoId(dueno.getId());
+        verify(mascotaRepository, times(1)).findDTOByDuenoId(dueno.getId());
     }
 
 
@@ -453,11 +631,11 @@ public class MascotaServiceImplTest {
     @DisplayName("Debería retornar mascotas por ID de raza")
     void findMascotasByRazaId_shouldReturnMascotas() {
         // Given
-        Mascota mascota2 = new Mascota(2L, "Lucy", LocalDate.of(2019, 5, 20), 1, "CHIP456", "Hembra", dueno, raza); // Misma raza
-        List<Mascota> foundEntities = Arrays.asList(mascota1, mascota2);
+        MascotaDTO mascotaDTO2 = new MascotaDTO(2L, "Lucy", "CHIP456", "Hembra", 1, LocalDate.of(2019, 5, 20),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador"); // Misma raza
 
-        when(razaRepository.existsById(raza.getId())).thenReturn(true);
-        when(mascotaRepository.findByRazaId(raza.getId())).thenReturn(foundEntities);
+        when(razaCatalogo.existe(raza.getId())).thenReturn(true);
+        when(mascotaRepository.findDTOByRazaId(raza.getId())).thenReturn(Arrays.asList(mascotaDTO1, mascotaDTO2));
 
         // When
         List<MascotaDTO> results = mascotaService.findMascotasByRazaId(raza.getId());
@@ -466,8 +644,8 @@ public class MascotaServiceImplTest {
         assertThat(results).hasSize(2);
         assertThat(results.get(0).getIdRaza()).isEqualTo(raza.getId());
         assertThat(results.get(1).getIdRaza()).isEqualTo(raza.getId());
-        verify(razaRepository, times(1)).existsById(raza.getId());
-        verify(mascotaRepository, times(1)).findByRazaId(raza.getId());
+        verify(razaCatalogo, times(1)).existe(raza.getId());
+        verify(mascotaRepository, times(1)).findDTOByRazaId(raza.getId());
     }
 
     @Test
@@ -475,7 +653,7 @@ public class MascotaServiceImplTest {
     void findMascotasByRazaId_shouldThrowException_whenRazaNotFound() {
         // Given
         Long nonExistentRazaId = 99L;
-        when(razaRepository.existsById(nonExistentRazaId)).thenReturn(false);
+        when(razaCatalogo.existe(nonExistentRazaId)).thenReturn(false);
 
         // When & Then
         ResourceNotFoundException thrown = assertThrows(ResourceNotFoundException.class, () -> {
@@ -483,8 +661,8 @@ public class MascotaServiceImplTest {
         });
 
         assertThat(thrown.getMessage()).isEqualTo("Raza no encontrada con ID: " + nonExistentRazaId);
-        verify(razaRepository, times(1)).existsById(nonExistentRazaId);
-        verify(mascotaRepository, never()).findByRazaId(anyLong());
+        verify(razaCatalogo, times(1)).existe(nonExistentRazaId);
+        verify(mascotaRepository, never()).findDTOByRazaId(anyLong());
     }
 
     // --- Tests para findMascotasByGenero(String genero) ---
@@ -492,10 +670,10 @@ public class MascotaServiceImplTest {
     @DisplayName("Debería retornar mascotas por género")
     void findMascotasByGenero_shouldReturnMascotas() {
         // Given
-        Mascota mascota2 = new Mascota(2L, "Panda", LocalDate.of(2021, 6, 1), 1, "CHIP777", "Macho", dueno, raza);
-        List<Mascota> foundEntities = Arrays.asList(mascota1, mascota2); // Ambos son "Macho"
+        MascotaDTO mascotaDTO2 = new MascotaDTO(2L, "Panda", "CHIP777", "Macho", 1, LocalDate.of(2021, 6, 1),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador");
 
-        when(mascotaRepository.findByGenero("Macho")).thenReturn(foundEntities);
+        when(mascotaRepository.findDTOByGenero("Macho")).thenReturn(Arrays.asList(mascotaDTO1, mascotaDTO2)); // Ambos son "Macho"
 
         // When
         List<MascotaDTO> results = mascotaService.findMascotasByGenero("Macho");
@@ -504,7 +682,7 @@ public class MascotaServiceImplTest {
         assertThat(results).hasSize(2);
         assertThat(results.get(0).getGenero()).isEqualTo("Macho");
         assertThat(results.get(1).getGenero()).isEqualTo("Macho");
-        verify(mascotaRepository, times(1)).findByGenero("Macho");
+        verify(mascotaRepository, times(1)).findDTOByGenero("Macho");
     }
 
     // --- Tests para findMascotasBornAfter(LocalDate date) ---
@@ -513,10 +691,10 @@ public class MascotaServiceImplTest {
     void findMascotasBornAfter_shouldReturnMascotas() {
         // Given
         LocalDate searchDate = LocalDate.of(2019, 12, 31);
-        Mascota mascota2 = new Mascota(2L, "Lucy", LocalDate.of(2020, 2, 1), 1, "CHIP456", "Hembra", dueno, raza);
-        List<Mascota> foundEntities = Arrays.asList(mascota1, mascota2); // Buddy (Jan 15, 2020), Lucy (Feb 1, 2020)
-
-        when(mascotaRepository.findByFechaNacimientoAfter(searchDate)).thenReturn(foundEntities);
+        MascotaDTO mascotaDTO2 = new MascotaDTO(2L, "Lucy", "CHIP456", "Hembra", 1, LocalDate.of(2020, 2, 1),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador");
+        // Buddy (Jan 15, 2020), Lucy (Feb 1, 2020)
+        when(mascotaRepository.findDTOByFechaNacimientoAfter(searchDate)).thenReturn(Arrays.asList(mascotaDTO1, mascotaDTO2));
 
         // When
         List<MascotaDTO> results = mascotaService.findMascotasBornAfter(searchDate);
@@ -525,7 +703,7 @@ public class MascotaServiceImplTest {
         assertThat(results).hasSize(2);
         assertThat(results.get(0).getNombre()).isEqualTo("Buddy");
         assertThat(results.get(1).getNombre()).isEqualTo("Lucy");
-        verify(mascotaRepository, times(1)).findByFechaNacimientoAfter(searchDate);
+        verify(mascotaRepository, times(1)).findDTOByFechaNacimientoAfter(searchDate);
     }
 
     // --- Tests para findMascotasBornBefore(LocalDate date) ---
@@ -534,10 +712,10 @@ public class MascotaServiceImplTest {
     void findMascotasBornBefore_shouldReturnMascotas() {
         // Given
         LocalDate searchDate = LocalDate.of(2020, 2, 1);
-        Mascota mascota2 = new Mascota(2L, "Lucy", LocalDate.of(2019, 5, 20), 1, "CHIP456", "Hembra", dueno, raza);
-        //List<Mascota> foundEntities = Arrays.asList(mascota1, mascota2); // Buddy (Jan 15, 2020), Lucy (May 20, 2019)
+        MascotaDTO mascotaDTO2 = new MascotaDTO(2L, "Lucy", "CHIP456", "Hembra", 1, LocalDate.of(2019, 5, 20),
+                dueno.getId(), raza.getId(), "Juan Perez", "Labrador");
         // Solo Lucy debería cumplir la condición 'before 2020-02-01'
-        when(mascotaRepository.findByFechaNacimientoBefore(searchDate)).thenReturn(List.of(mascota2));
+        when(mascotaRepository.findDTOByFechaNacimientoBefore(searchDate)).thenReturn(List.of(mascotaDTO2));
 
         // When
         List<MascotaDTO> results = mascotaService.findMascotasBornBefore(searchDate);
@@ -545,6 +723,6 @@ public class MascotaServiceImplTest {
         // Then
         assertThat(results).hasSize(1);
         assertThat(results.get(0).getNombre()).isEqualTo("Lucy");
-        verify(mascotaRepository, times(1)).findByFechaNacimientoBefore(searchDate);
+        verify(mascotaRepository, times(1)).findDTOByFechaNacimientoBefore(searchDate);
     }
 }
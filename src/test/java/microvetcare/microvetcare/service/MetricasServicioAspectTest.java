@@ -0,0 +1,92 @@
+package microvetcare.microvetcare.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import microvetcare.microvetcare.especie.DTO.EspecieDTO;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.especie.repository.EspecieRepository;
+import microvetcare.microvetcare.especie.service.EspecieCatalogo;
+import microvetcare.microvetcare.especie.service.EspecieService;
+import microvetcare.microvetcare.especie.service.EspecieServiceImpl;
+import microvetcare.microvetcare.exception.ResourceNotFoundException;
+import microvetcare.microvetcare.observabilidad.MetricasServicioAspect;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
+
+@ExtendWith(MockitoExtension.class)
+public class MetricasServicioAspectTest {
+
+    @Mock
+    private EspecieRepository especieRepository;
+
+    @Mock
+    private RazaRepository razaRepository;
+
+    private SimpleMeterRegistry registry;
+    private EspecieService especieService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // El mismo proxy que arma Spring alrededor del servicio real
+        AspectJProxyFactory proxy = new AspectJProxyFactory(new EspecieServiceImpl(especieRepository,
+                new EspecieCatalogo(especieRepository, registry), new RazaCatalogo(razaRepository, registry)));
+        proxy.addAspect(new MetricasServicioAspect(registry));
+        especieService = proxy.getProxy();
+    }
+
+    private Timer timer(String operacion, String excepcion) {
+        return registry.find("servicio.invocaciones")
+                .tag("dominio", "especie")
+                .tag("operacion", operacion)
+                .tag("excepcion", excepcion)
+                .timer();
+    }
+
+    @Test
+    @DisplayName("Debería medir cada llamada al servicio etiquetada por dominio y operación")
+    void shouldTimeServiceCallsByDomainAndOperation() {
+        // Given
+        when(especieRepository.findAll()).thenReturn(List.of(new Especie(1L, "Canis familiaris", "Perro", 1)));
+
+        // When
+        especieService.findAllEspecies();
+        especieService.findAllEspecies();
+
+        // Then
+        Timer timer = timer("findAllEspecies", "none");
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debería registrar la excepción en la etiqueta y volver a lanzarla")
+    void shouldTagExceptionAndRethrow() {
+        // Given
+        when(especieRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When
+        assertThrows(ResourceNotFoundException.class,
+                () -> especieService.updateEspecie(99L, new EspecieDTO(null, null, "Gato", 1)));
+
+        // Then
+        assertThat(timer("updateEspecie", "ResourceNotFoundException").count()).isEqualTo(1);
+        assertThat(timer("updateEspecie", "none")).isNull();
+    }
+}
@@ -0,0 +1,88 @@
+package microvetcare.microvetcare.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+import microvetcare.microvetcare.observabilidad.CorrelacionFilter;
+import microvetcare.microvetcare.observabilidad.MuestreoDebugTurboFilter;
+
+public class MuestreoDebugTurboFilterTest {
+
+    private final Logger logger = new LoggerContext().getLogger("org.hibernate.SQL");
+    private MuestreoDebugTurboFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new MuestreoDebugTurboFilter();
+        filtro.setTasa(0.1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    private FilterReply decidir(String correlationId, Level level) {
+        MDC.put(CorrelacionFilter.CLAVE_MDC, correlationId);
+        return filtro.decide(null, logger, level, "select ...", null, null);
+    }
+
+    @Test
+    @DisplayName("INFO y superiores nunca se filtran")
+    void decide_shouldNotTouchInfoAndAbove() {
+        long negados = IntStream.range(0, 1000)
+                .filter(i -> decidir("peticion-" + i, Level.INFO) == FilterReply.DENY
+                        || decidir("peticion-" + i, Level.ERROR) == FilterReply.DENY)
+                .count();
+
+        assertThat(negados).isZero();
+    }
+
+    @Test
+    @DisplayName("DEBUG debería pasar en una fracción de las peticiones cercana a la tasa")
+    void decide_shouldSampleDebugNearRate() {
+        long muestreadas = IntStream.range(0, 20_000)
+                .filter(i -> decidir("peticion-" + i, Level.DEBUG) == FilterReply.NEUTRAL)
+                .count();
+
+        assertThat(muestreadas).isBetween(1_600L, 2_400L);
+    }
+
+    @Test
+    @DisplayName("La misma petición debería recibir siempre la misma decisión")
+    void decide_shouldBeStablePerRequest() {
+        IntStream.range(0, 500).forEach(i -> {
+            FilterReply primera = decidir("peticion-" + i, Level.DEBUG);
+            assertThat(decidir("peticion-" + i, Level.TRACE)).isEqualTo(primera);
+        });
+    }
+
+    @Test
+    @DisplayName("Tasa 0 niega todo DEBUG y tasa 1 lo deja pasar todo")
+    void decide_shouldHonorExtremeRates() {
+        filtro.setTasa(0);
+        assertThat(decidir("peticion-1", Level.DEBUG)).isEqualTo(FilterReply.DENY);
+
+        filtro.setTasa(1);
+        assertThat(decidir("peticion-1", Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una tasa fuera de 0..1")
+    void setTasa_shouldRejectOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> filtro.setTasa(1.5));
+    }
+}
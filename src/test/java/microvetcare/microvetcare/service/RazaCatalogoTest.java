@@ -0,0 +1,189 @@
+package microvetcare.microvetcare.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import microvetcare.microvetcare.especie.entity.Especie;
+import microvetcare.microvetcare.raza.DTO.RazaDTO;
+import microvetcare.microvetcare.raza.entity.Raza;
+import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RazaCatalogoTest {
+
+    @Mock
+    private RazaRepository razaRepository;
+
+    private SimpleMeterRegistry registry;
+    private RazaCatalogo razaCatalogo;
+    private Especie perro;
+    private Especie gato;
+
+    private Raza createTestRaza(Long id, String nombre, Especie especie) {
+        Raza raza = new Raza(nombre, "A", especie);
+        raza.setId(id);
+        return raza;
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        razaCatalogo = new RazaCatalogo(razaRepository, registry);
+        perro = new Especie(1L, "Canis familiaris", "Perro", 1);
+        gato = new Especie(2L, "Felis catus", "Gato", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void precargar() {
+        when(razaRepository.findAll()).thenReturn(List.of(
+                createTestRaza(11L, "Siames", gato),
+                createTestRaza(10L, "Labrador", perro)));
+        razaCatalogo.precargar();
+    }
+
+    private double consultas(String resultado) {
+        return registry.get("catalogo.cache.consultas").tag("catalogo", "raza").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Con el catálogo precargado las lecturas no deberían llegar al repositorio")
+    void lecturas_shouldBeServedFromMemory_whenWarm() {
+        // Given
+        precargar();
+
+        // When
+        List<RazaDTO> todas = razaCatalogo.todos();
+        Optional<RazaDTO> porId = razaCatalogo.buscarPorId(10L);
+        Optional<RazaDTO> porNombre = razaCatalogo.buscarPorNombre("Siames");
+        List<RazaDTO> porEspecie = razaCatalogo.buscarPorEspecieId(1L);
+
+        // Then
+        assertThat(todas).extracting(RazaDTO::getId).containsExactly(10L, 11L);
+        assertThat(porId).map(RazaDTO::getNombre).contains("Labrador");
+        assertThat(porNombre).map(RazaDTO::getId).contains(11L);
+        assertThat(porEspecie).extracting(RazaDTO::getNombre).containsExactly("Labrador");
+        assertThat(consultas("hit")).isEqualTo(4);
+        assertThat(consultas("miss")).isZero();
+        verify(razaRepository, times(1)).findAll();
+        verifyNoMoreInteractions(razaRepository);
+    }
+
+    @Test
+    @DisplayName("Un ID que no está en memoria debería consultarse en el repositorio y contarse como miss")
+    void buscarPorId_shouldFallBackToRepository_onMiss() {
+        // Given
+        precargar();
+        when(razaRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When
+        boolean existe = razaCatalogo.existe(99L);
+
+        // Then
+        assertThat(existe).isFalse();
+        assertThat(consultas("miss")).isEqualTo(1);
+        verify(razaRepository, times(1)).findById(99L);
+    }
+
+    @Test
+    @DisplayName("Guardar una raza debería publicar una foto nueva sin modificar la anterior")
+    void guardado_shouldSwapSnapshot() {
+        // Given
+        precargar();
+        List<RazaDTO> antes = razaCatalogo.todos();
+
+        // When
+        razaCatalogo.guardado(new RazaDTO(10L, "Labrador Retriever", "A", 1L));
+
+        // Then
+        assertThat(antes).extracting(RazaDTO::getNombre).containsExactly("Labrador", "Siames");
+        assertThat(razaCatalogo.todos()).extracting(RazaDTO::getNombre).containsExactly("Labrador Retriever", "Siames");
+        assertThat(razaCatalogo.buscarPorNombre("Labrador Retriever")).isPresent();
+        // El nombre anterior ya no está en memoria y se consulta en el repositorio
+        when(razaRepository.findByNombre("Labrador")).thenReturn(Optional.empty());
+        assertThat(razaCatalogo.buscarPorNombre("Labrador")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción el cambio solo debería aplicarse después del commit")
+    void guardado_shouldWaitForCommit_whenTransactionActive() {
+        // Given
+        precargar();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        razaCatalogo.eliminado(10L);
+
+        // Then
+        assertThat(razaCatalogo.enCache(10L)).isPresent();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(razaCatalogo.enCache(10L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Si la transacción hace rollback la foto no debería cambiar")
+    void guardado_shouldBeDiscarded_onRollback() {
+        // Given
+        precargar();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        razaCatalogo.guardado(new RazaDTO(12L, "Persa", "A", 2L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(razaCatalogo.enCache(12L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Eliminar una especie debería quitar sus razas del catálogo")
+    void especieEliminada_shouldRemoveRazasOfEspecie() {
+        // Given
+        precargar();
+
+        // When
+        razaCatalogo.especieEliminada(2L);
+
+        // Then
+        assertThat(razaCatalogo.todos()).extracting(RazaDTO::getNombre).containsExactly("Labrador");
+    }
+
+    @Test
+    @DisplayName("Sin precargar, las búsquedas deberían ir al repositorio y los cambios se ignoran")
+    void catalogoFrio_shouldDelegateToRepository() {
+        // Given
+        when(razaRepository.findById(10L)).thenReturn(Optional.of(createTestRaza(10L, "Labrador", perro)));
+
+        // When
+        razaCatalogo.guardado(new RazaDTO(12L, "Persa", "A", 2L));
+        Optional<RazaDTO> raza = razaCatalogo.buscarPorId(10L);
+
+        // Then
+        assertThat(raza).map(RazaDTO::getNombre).contains("Labrador");
+        assertThat(razaCatalogo.enCache(12L)).isEmpty();
+        verify(razaRepository, never()).findAll();
+        verify(razaRepository, never()).findById(12L);
+        verify(razaRepository, times(1)).findById(anyLong());
+    }
+}
@@ -5,16 +5,18 @@ import microvetcare.microvetcare.especie.repository.EspecieRepository;
 import microvetcare.microvetcare.raza.DTO.RazaDTO;
 import microvetcare.microvetcare.raza.entity.Raza;
 import microvetcare.microvetcare.raza.repository.RazaRepository;
+import microvetcare.microvetcare.raza.service.RazaCatalogo;
 import microvetcare.microvetcare.raza.service.RazaServiceImpl;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -33,7 +35,7 @@ public class RazaServiceImplTest {
     @Mock
     private EspecieRepository especieRepository; // Necesitamos mockear el EspecieRepository también
 
-    @InjectMocks
+    // El catálogo es real pero queda sin precargar, así que cada lectura llega al repositorio simulado
     private RazaServiceImpl razaService;
 
     // Objetos de prueba que usaremos en varios tests
@@ -71,6 +73,7 @@ public class RazaServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        razaService = new RazaServiceImpl(razaRepository, especieRepository, new RazaCatalogo(razaRepository, new SimpleMeterRegistry()));
         // Inicialización de objetos de prueba antes de cada test
         testEspecie = createTestEspecie(1L, "Canis familiaris", "Perro", 1);
         testRaza = createTestRaza(10L, "Labrador", "A", testEspecie);